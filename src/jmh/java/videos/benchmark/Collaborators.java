@@ -0,0 +1,35 @@
+package videos.benchmark;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Builds a bean through its only public constructor, passing each parameter the given collaborator that is
+ * assignable to it, or null. Benchmarks name only the collaborators their code path uses, so they keep
+ * working when the constructor gains or reorders others.
+ */
+final class Collaborators {
+
+    private Collaborators() {
+    }
+
+    static <T> T construct(Class<T> type, Object... collaborators) {
+        Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length != 1)
+            throw new IllegalArgumentException(type.getName() + " needs exactly one public constructor");
+        Class<?>[] parameters = constructors[0].getParameterTypes();
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            for (Object collaborator : collaborators) {
+                if (parameters[i].isInstance(collaborator)) {
+                    args[i] = collaborator;
+                    break;
+                }
+            }
+        }
+        try {
+            return type.cast(constructors[0].newInstance(args));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot construct " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package videos.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import videos.exception.VideoNotFoundException;
+import videos.exception.VideoServiceException;
+import videos.util.CommonUtil;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorResponseBenchmark {
+
+    private WebRequest request;
+    private VideoServiceException notFound;
+
+    @Setup
+    public void setUp() {
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/videos/6f1c1c0e-0000-7000-8000-000000000000"));
+        notFound = new VideoServiceException("id", HttpStatus.NOT_FOUND, "Video does not exist");
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> buildErrorResponse() {
+        return CommonUtil.buildErrorResponse(notFound, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> throwAndBuildErrorResponse() {
+        try {
+            throw new VideoServiceException("id", HttpStatus.NOT_FOUND, "Video does not exist");
+        } catch (VideoServiceException e) {
+            return CommonUtil.buildErrorResponse(e, request);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> throwStacklessAndBuildErrorResponse() {
+        try {
+            throw new VideoNotFoundException("id", "Video does not exist");
+        } catch (VideoServiceException e) {
+            return CommonUtil.buildErrorResponse(e, request);
+        }
+    }
+}
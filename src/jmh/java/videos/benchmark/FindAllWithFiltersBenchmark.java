@@ -0,0 +1,83 @@
+package videos.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import videos.domain.Video;
+import videos.dto.VideoDTO;
+import videos.mapper.VideoMapperImpl;
+import videos.repository.VideoSpecifications;
+import videos.repository.VideosRepository;
+import videos.service.VideoServiceImpl;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-side cost of {@code findAllWithFilters} over synthetic datasets: building the specification,
+ * evaluating it against the dataset and mapping the page. The repository is an in-memory stand-in that
+ * scans the dataset newest first with the specification's filter ({@link InMemoryVideoQuery}), so a
+ * selective filter or a deep page touches more of a larger dataset. Database time is excluded; it is
+ * covered by the load test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FindAllWithFiltersBenchmark {
+
+    // SyntheticVideos spreads videos over 100 users and completes every third one
+    private static final UUID USER = new UUID(0L, 7);
+
+    @Param({"1000", "100000"})
+    public int datasetSize;
+
+    @Param({"20", "500"})
+    public int pageSize;
+
+    // completed matches a third of the dataset, user one percent of it
+    @Param({"completed", "user"})
+    public String filter;
+
+    // last is the deepest page that still has matches, so the whole dataset is scanned
+    @Param({"first", "last"})
+    public String page;
+
+    private VideoServiceImpl service;
+    private UUID userId;
+    private Boolean completed;
+    private PageRequest request;
+
+    @Setup
+    public void setUp() {
+        List<Video> dataset = SyntheticVideos.videos(datasetSize);
+        VideosRepository repository = (VideosRepository) Proxy.newProxyInstance(
+                VideosRepository.class.getClassLoader(),
+                new Class<?>[]{VideosRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findPage") && args != null && args.length == 2
+                            && args[0] instanceof Specification<?> spec && args[1] instanceof Pageable pageable) {
+                        @SuppressWarnings("unchecked")
+                        Specification<Video> videoSpec = (Specification<Video>) spec;
+                        return InMemoryVideoQuery.page(dataset, videoSpec, pageable);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        service = Collaborators.construct(VideoServiceImpl.class, repository, new VideoMapperImpl());
+
+        userId = filter.equals("user") ? USER : null;
+        completed = filter.equals("completed") ? Boolean.TRUE : null;
+        long matches = dataset.stream()
+                .filter(InMemoryVideoQuery.filter(VideoSpecifications.withFilters(null, userId, null, completed)))
+                .count();
+        int pageNumber = page.equals("last") ? (int) ((matches - 1) / pageSize) : 0;
+        request = PageRequest.of(pageNumber, pageSize);
+    }
+
+    @Benchmark
+    public List<VideoDTO> findAllWithFilters() {
+        return service.findAllWithFilters(null, userId, null, completed, request);
+    }
+}
@@ -0,0 +1,132 @@
+package videos.benchmark;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import videos.domain.Video;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Runs a {@link videos.repository.VideoSpecifications} filter against an in-memory dataset, for benchmarks
+ * that stub the repository. The specification is turned into a row test through a criteria builder that
+ * supports what those specifications use: root attributes, {@code equal} and {@code and}. Rows are scanned
+ * newest first and matches are skipped up to the page offset, like a walk of the (created, id) index.
+ */
+final class InMemoryVideoQuery {
+
+    private static final Map<String, Function<Video, Object>> ATTRIBUTES = Map.of(
+            "id", Video::getId,
+            "userId", Video::getUserId,
+            "title", Video::getTitle,
+            "completed", Video::getCompleted);
+
+    private InMemoryVideoQuery() {
+    }
+
+    /**
+     * The requested page of {@code oldestFirst} (ordered by created) matching {@code spec}, newest first.
+     */
+    static List<Video> page(List<Video> oldestFirst, Specification<Video> spec, Pageable pageable) {
+        java.util.function.Predicate<Video> filter = filter(spec);
+        List<Video> page = new ArrayList<>(pageable.getPageSize());
+        long skip = pageable.getOffset();
+        for (int i = oldestFirst.size() - 1; i >= 0 && page.size() < pageable.getPageSize(); i--) {
+            Video video = oldestFirst.get(i);
+            if (!filter.test(video))
+                continue;
+            if (skip > 0)
+                skip--;
+            else
+                page.add(video);
+        }
+        return page;
+    }
+
+    static java.util.function.Predicate<Video> filter(Specification<Video> spec) {
+        @SuppressWarnings("unchecked")
+        Root<Video> root = proxy(Root.class, (proxy, method, args) -> {
+            if (method.getName().equals("get") && args.length == 1 && args[0] instanceof String name)
+                return proxy(jakarta.persistence.criteria.Path.class, new Attribute(name));
+            throw unsupported(method);
+        });
+        CriteriaBuilder cb = proxy(CriteriaBuilder.class, (proxy, method, args) -> switch (method.getName()) {
+            case "equal" -> {
+                Function<Video, Object> attribute = ATTRIBUTES.get(handler(args[0], Attribute.class).name());
+                Object value = args[1];
+                yield condition(video -> matches(attribute.apply(video), value));
+            }
+            case "and" -> {
+                List<java.util.function.Predicate<Video>> parts = new ArrayList<>();
+                for (Object arg : args) {
+                    if (arg instanceof Object[] array) {
+                        for (Object element : array)
+                            parts.add(handler(element, Condition.class).test());
+                    } else {
+                        parts.add(handler(arg, Condition.class).test());
+                    }
+                }
+                yield condition(video -> parts.stream().allMatch(part -> part.test(video)));
+            }
+            default -> throw unsupported(method);
+        });
+        Predicate predicate = spec.toPredicate(root, null, cb);
+        return predicate == null ? video -> true : handler(predicate, Condition.class).test();
+    }
+
+    // the title column has a case-insensitive collation
+    private static boolean matches(Object actual, Object expected) {
+        if (actual instanceof String text && expected instanceof String other)
+            return text.equalsIgnoreCase(other);
+        return Objects.equals(actual, expected);
+    }
+
+    private static Predicate condition(java.util.function.Predicate<Video> test) {
+        return proxy(Predicate.class, new Condition(test));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InMemoryVideoQuery.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static <H> H handler(Object expression, Class<H> type) {
+        if (expression instanceof Expression<?> && Proxy.isProxyClass(expression.getClass()))
+            return type.cast(Proxy.getInvocationHandler(expression));
+        throw new UnsupportedOperationException("Unsupported expression " + expression);
+    }
+
+    private static UnsupportedOperationException unsupported(Method method) {
+        return new UnsupportedOperationException(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+    }
+
+    private record Attribute(String name) implements InvocationHandler {
+
+        Attribute {
+            if (!ATTRIBUTES.containsKey(name))
+                throw new UnsupportedOperationException("Unsupported attribute " + name);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            throw unsupported(method);
+        }
+    }
+
+    private record Condition(java.util.function.Predicate<Video> test) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            throw unsupported(method);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package videos.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import videos.logging.SamplingTurboFilter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost to the calling thread of one log line, from four threads sharing an appender that writes to a
+ * file, as console output does in a container. {@code sync-pattern} is the default console setup,
+ * {@code async-json} the prod profile. With the async appender only the enqueue is measured; a queue
+ * that stays full drops INFO lines instead of slowing callers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class LoggingBenchmark {
+
+    @Param({"sync-pattern", "sync-json", "async-json"})
+    public String appender;
+
+    private LoggerContext context;
+    private File file;
+    private Logger service;
+    private Logger sampled;
+    private UUID id;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        file = File.createTempFile("logging-benchmark", ".log");
+        file.deleteOnExit();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(appender.endsWith("json") ? json() : pattern());
+        sink.setOutputStream(new FileOutputStream(file));
+        sink.start();
+
+        Appender<ILoggingEvent> root = sink;
+        if (appender.startsWith("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(sink);
+            async.start();
+            root = async;
+        }
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.addLogger("videos.sampled");
+        filter.setDebugSampleRate(100);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        service = context.getLogger("videos.service.VideoServiceImpl");
+        sampled = context.getLogger("videos.sampled");
+        sampled.setLevel(Level.DEBUG);
+        id = UUID.randomUUID();
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+
+        @Setup
+        public void setUp(LoggingBenchmark benchmark) {
+            benchmark.context.getMDCAdapter().put("correlationId", Long.toHexString(Thread.currentThread().threadId()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        file.delete();
+    }
+
+    @Benchmark
+    public void infoLine(Request request) {
+        service.info("Video to be saved with Id: '{}'", id);
+    }
+
+    /**
+     * A DEBUG line below the logger's level, the price of leaving debug statements in hot paths.
+     */
+    @Benchmark
+    public void disabledDebugLine(Request request) {
+        service.debug("find video by Id: [Id: {}]", id);
+    }
+
+    /**
+     * An enabled DEBUG line through the sampling filter at 1 in 100.
+     */
+    @Benchmark
+    public void sampledDebugLine(Request request) {
+        sampled.debug("find video by Id: [Id: {}]", id);
+    }
+
+    private Encoder<ILoggingEvent> pattern() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5level [%thread] --- %logger{15} - %msg%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> json() {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.addIncludeMdcKeyName("correlationId");
+        encoder.start();
+        return encoder;
+    }
+}
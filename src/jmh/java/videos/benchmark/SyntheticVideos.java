@@ -0,0 +1,59 @@
+package videos.benchmark;
+
+import videos.domain.Video;
+import videos.dto.VideoDTO;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class SyntheticVideos {
+
+    private SyntheticVideos() {
+    }
+
+    static Video video(int i) {
+        Video video = Video.builder()
+                .title("title-" + i)
+                .description("synthetic description for video number " + i)
+                .userName("user-" + (i % 100))
+                .completed(i % 3 == 0)
+                .build();
+        video.setId(UUID.randomUUID());
+        video.setUserId(new UUID(0L, i % 100));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(i));
+        video.setCreated(now);
+        video.setUpdated(now);
+        return video;
+    }
+
+    static List<Video> videos(int count) {
+        List<Video> videos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            videos.add(video(i));
+        return videos;
+    }
+
+    static VideoDTO dto(int i) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(i);
+        return VideoDTO.builder()
+                .id(UUID.randomUUID())
+                .title("title-" + i)
+                .description("synthetic description for video number " + i)
+                .userId(new UUID(0L, i % 100))
+                .userName("user-" + (i % 100))
+                .completed(i % 3 == 0)
+                .created(now)
+                .updated(now)
+                .build();
+    }
+
+    static List<VideoDTO> dtos(int count) {
+        List<VideoDTO> dtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            dtos.add(dto(i));
+        return dtos;
+    }
+}
@@ -0,0 +1,40 @@
+package videos.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import videos.domain.Video;
+import videos.dto.VideoDTO;
+import videos.mapper.VideoMapper;
+import videos.mapper.VideoMapperImpl;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VideoMapperBenchmark {
+
+    private final VideoMapper mapper = new VideoMapperImpl();
+    private Video video;
+    private VideoDTO dto;
+
+    @Setup
+    public void setUp() {
+        video = SyntheticVideos.video(1);
+        dto = SyntheticVideos.dto(2);
+    }
+
+    @Benchmark
+    public VideoDTO toDTO() {
+        return mapper.toDTO(video);
+    }
+
+    @Benchmark
+    public Video toDomain() {
+        return mapper.toDomain(dto);
+    }
+
+    @Benchmark
+    public Video merge() {
+        return mapper.merge(dto, new Video());
+    }
+}
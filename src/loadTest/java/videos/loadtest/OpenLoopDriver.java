@@ -0,0 +1,148 @@
+package videos.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends each operation at its own fixed arrival rate, one virtual thread per request, whether or not
+ * earlier requests have completed. Latency is measured from the time a request was scheduled to be
+ * sent, so a stall counts against every request that should have been sent during it rather than only
+ * the one that was stuck (coordinated-omission correction). Service time, measured from the actual send,
+ * is kept alongside for comparison.
+ */
+final class OpenLoopDriver {
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    OpenLoopDriver() {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    Map<String, EndpointStats> run(List<Workload.Operation> operations, Map<String, Integer> mix, double totalRate,
+                                   Duration warmup, Duration duration) throws InterruptedException {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        List<Thread> schedulers = new ArrayList<>();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Workload.Operation operation : operations) {
+                Integer weight = mix.get(operation.name());
+                if (weight == null || weight == 0)
+                    continue;
+                EndpointStats endpoint = new EndpointStats(duration);
+                stats.put(operation.name(), endpoint);
+                long interval = (long) (1e9 / (totalRate * weight / totalWeight));
+                schedulers.add(Thread.ofVirtual().name("load-" + operation.name()).start(() -> {
+                    for (long intended = start; intended < end; intended += interval) {
+                        long wait = intended - System.nanoTime();
+                        if (wait > 0)
+                            LockSupport.parkNanos(wait);
+                        long scheduled = intended;
+                        requests.submit(() -> send(operation, scheduled, scheduled >= measureFrom ? endpoint : null));
+                    }
+                }));
+            }
+            for (Thread scheduler : schedulers)
+                scheduler.join();
+            // closing waits for the requests still in flight, each bounded by REQUEST_TIMEOUT
+        }
+        return stats;
+    }
+
+    private void send(Workload.Operation operation, long scheduled, EndpointStats stats) {
+        Optional<HttpRequest> next = operation.next();
+        if (next.isEmpty()) {
+            if (stats != null)
+                stats.outcome("skipped");
+            return;
+        }
+        HttpRequest request = next.get();
+        long sent = System.nanoTime();
+        String outcome;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            outcome = String.valueOf(response.statusCode());
+            if (response.statusCode() / 100 == 2)
+                operation.completed(response);
+        } catch (HttpTimeoutException e) {
+            outcome = "timeout";
+        } catch (IOException e) {
+            outcome = "io_error";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long done = System.nanoTime();
+        if (stats != null)
+            stats.record(outcome, done - scheduled, done - sent);
+    }
+
+    static final class EndpointStats {
+
+        private final Duration duration;
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final Histogram serviceTime = new ConcurrentHistogram(3);
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final LongAdder succeeded = new LongAdder();
+
+        EndpointStats(Duration duration) {
+            this.duration = duration;
+        }
+
+        void record(String outcome, long latencyNanos, long serviceNanos) {
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(serviceNanos));
+            outcome(outcome);
+            if (outcome.startsWith("2"))
+                succeeded.increment();
+        }
+
+        void outcome(String outcome) {
+            outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+        }
+
+        Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", latency.getTotalCount());
+            summary.put("successPerSecond", succeeded.sum() / (duration.toMillis() / 1000.0));
+            Map<String, Long> counts = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            summary.put("outcomes", counts);
+            summary.put("latencyMillis", percentiles(latency));
+            summary.put("serviceTimeMillis", percentiles(serviceTime));
+            return summary;
+        }
+
+        private static Map<String, Double> percentiles(Histogram histogram) {
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            percentiles.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+            percentiles.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+            percentiles.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+            percentiles.put("max", histogram.getMaxValue() / 1000.0);
+            return percentiles;
+        }
+    }
+}
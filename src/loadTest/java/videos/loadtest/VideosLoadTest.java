@@ -0,0 +1,169 @@
+package videos.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import videos.domain.TimeOrderedUuidGenerator;
+import videos.search.VideoSearchIndex;
+import videos.service.ApproximateVideoCount;
+import videos.service.VideoExistenceFilter;
+import videos.service.VideoStatsService;
+import videos.util.CommonUtil;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the service on a random port against a MariaDB container with the prod profile, seeds a synthetic
+ * catalog and drives the {@link Workload} mix at a fixed total arrival rate. Throughput, outcomes and
+ * p50/p99/p999 latency per endpoint are written to {@code build/reports/loadtest/<commit>.json}. Run with
+ * {@code ./gradlew loadTest -Ploadtest.rate=500 -Ploadtest.duration=PT60S}; see README for all settings.
+ */
+@Testcontainers
+@ActiveProfiles("prod")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "eureka.client.enabled=false")
+class VideosLoadTest {
+
+    private static final int SEED_BATCH_SIZE = 1_000;
+
+    @Container
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4")
+            .withCommand("--innodb-buffer-pool-size=512M");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MARIADB::getJdbcUrl);
+        registry.add("spring.datasource.username", MARIADB::getUsername);
+        registry.add("spring.datasource.password", MARIADB::getPassword);
+        registry.add("spring.flyway.user", MARIADB::getUsername);
+        registry.add("spring.flyway.password", MARIADB::getPassword);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApproximateVideoCount approximateCount;
+    @Autowired
+    private VideoStatsService statsService;
+    @Autowired
+    private VideoSearchIndex searchIndex;
+    @Autowired
+    private VideoExistenceFilter existenceFilter;
+
+    record Settings(int catalog, int users, double rate, Duration warmup, Duration duration,
+                    Map<String, Integer> mix, String commit, Path output) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("loadtest.catalog", 10_000),
+                    Integer.getInteger("loadtest.users", 100),
+                    Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                    Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                    Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                    mix(System.getProperty("loadtest.mix")),
+                    System.getProperty("loadtest.commit", "unknown"),
+                    Path.of(System.getProperty("loadtest.output", "build/reports/loadtest")));
+        }
+
+        // "get:50,list:25,save:25"; endpoints left out are not exercised
+        private static Map<String, Integer> mix(String value) {
+            if (value == null || value.isBlank())
+                return Workload.DEFAULT_MIX;
+            Map<String, Integer> mix = new LinkedHashMap<>();
+            for (String entry : value.split(",")) {
+                String[] parts = entry.trim().split(":");
+                mix.put(parts[0], Integer.parseInt(parts[1]));
+            }
+            return mix;
+        }
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        List<UUID> users = IntStream.range(0, settings.users()).mapToObj(i -> TimeOrderedUuidGenerator.next()).toList();
+        List<UUID> ids = seed(settings.catalog(), users);
+        refreshDerivedState();
+
+        Workload workload = new Workload(URI.create("http://localhost:" + port + "/api/videos"), ids, users);
+        Map<String, OpenLoopDriver.EndpointStats> results = new OpenLoopDriver()
+                .run(workload.operations(), settings.mix(), settings.rate(), settings.warmup(), settings.duration());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commit", settings.commit());
+        report.put("timestamp", Instant.now().toString());
+        report.put("catalog", settings.catalog());
+        report.put("ratePerSecond", settings.rate());
+        report.put("warmup", settings.warmup().toString());
+        report.put("duration", settings.duration().toString());
+        report.put("mix", settings.mix());
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        results.forEach((name, stats) -> endpoints.put(name, stats.summary()));
+        report.put("endpoints", endpoints);
+
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        Files.createDirectories(settings.output());
+        Files.writeString(settings.output().resolve(settings.commit() + ".json"), json);
+        System.out.println(json);
+    }
+
+    private List<UUID> seed(int catalog, List<UUID> users) {
+        List<UUID> ids = new ArrayList<>(catalog);
+        String insert = "insert into tbl_video (id, title, description, user_id, user_name, completed, created, updated) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int from = 0; from < catalog; from += SEED_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = from; i < Math.min(catalog, from + SEED_BATCH_SIZE); i++) {
+                UUID id = TimeOrderedUuidGenerator.next();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Timestamp now = Timestamp.from(Instant.now());
+                ids.add(id);
+                rows.add(new Object[]{CommonUtil.toBytes(id), "video " + i,
+                        Workload.WORDS[random.nextInt(Workload.WORDS.length)] + " " +
+                                Workload.WORDS[random.nextInt(Workload.WORDS.length)] + " episode " + i,
+                        CommonUtil.toBytes(users.get(random.nextInt(users.size()))), "user", random.nextInt(3) == 0,
+                        now, now});
+            }
+            jdbcTemplate.batchUpdate(insert, rows);
+        }
+        return ids;
+    }
+
+    // the search index and existence filter are built when the application starts, before the seed rows exist
+    private void refreshDerivedState() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest search = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/videos/search?q=java")).build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (client.send(search, HttpResponse.BodyHandlers.discarding()).statusCode() == 503 && System.nanoTime() < deadline)
+            Thread.sleep(100);
+
+        approximateCount.refresh();
+        statsService.rebuild();
+        searchIndex.rebuild();
+        existenceFilter.rebuild();
+    }
+}
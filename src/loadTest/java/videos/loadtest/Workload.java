@@ -0,0 +1,142 @@
+package videos.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The requests of the mixed workload, one {@link Operation} per VideosController endpoint. Ids are drawn
+ * from the seeded catalog; videos created by {@code save} are the ones {@code delete} removes first, so
+ * the catalog size stays roughly constant.
+ */
+final class Workload {
+
+    static final String[] WORDS = {"java", "spring", "kotlin", "docker", "kubernetes", "database", "cache",
+            "index", "stream", "cloud", "security", "testing", "design", "patterns", "performance", "intro",
+            "advanced", "tutorial", "live", "workshop"};
+
+    static final Map<String, Integer> DEFAULT_MIX = defaultMix();
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+    private static final int PAGE_SIZE = 20;
+    private static final int BATCH_GET_SIZE = 10;
+
+    private final URI base;
+    private final List<UUID> users;
+    private final List<UUID> live;
+    private final Deque<UUID> created = new ConcurrentLinkedDeque<>();
+    private final AtomicLong saves = new AtomicLong();
+    private final int pages;
+
+    Workload(URI base, List<UUID> ids, List<UUID> users) {
+        this.base = base;
+        this.users = users;
+        this.live = new ArrayList<>(ids);
+        this.pages = Math.max(1, Math.min(50, ids.size() / PAGE_SIZE));
+    }
+
+    record Operation(String name, Supplier<Optional<HttpRequest>> request, Consumer<HttpResponse<String>> onSuccess) {
+
+        Optional<HttpRequest> next() {
+            return request.get();
+        }
+
+        void completed(HttpResponse<String> response) {
+            onSuccess.accept(response);
+        }
+    }
+
+    List<Operation> operations() {
+        return List.of(
+                read("list", () -> get("?page=" + random().nextInt(pages) + "&size=" + PAGE_SIZE)),
+                read("filter", () -> get("/filter?userId=" + randomUser() + "&completed=" + random().nextBoolean()
+                        + "&size=" + PAGE_SIZE)),
+                read("get", () -> get("/" + randomLive())),
+                read("search", () -> get("/search?q=" + WORDS[random().nextInt(WORDS.length)] + "&limit=" + PAGE_SIZE)),
+                read("timeline", () -> get("/users/" + randomUser() + "?size=" + PAGE_SIZE)),
+                read("batch-get", () -> json("/batch-get", "POST", "{\"ids\":" + randomLive(BATCH_GET_SIZE) + "}")),
+                read("stats", () -> get("/stats")),
+                read("patch", () -> request("/" + randomLive()).method("PATCH", HttpRequest.BodyPublishers.noBody()).build()),
+                new Operation("save", () -> Optional.of(json("", "POST", newVideo())), response -> {
+                    Matcher matcher = ID.matcher(response.body());
+                    if (matcher.find())
+                        created.add(UUID.fromString(matcher.group(1)));
+                }),
+                new Operation("delete", () -> {
+                    UUID id = created.pollFirst();
+                    return Optional.ofNullable(id).map(i -> request("/" + i).DELETE().build());
+                }, response -> {
+                }));
+    }
+
+    private static Operation read(String name, Supplier<HttpRequest> request) {
+        return new Operation(name, () -> Optional.of(request.get()), response -> {
+        });
+    }
+
+    private String newVideo() {
+        long n = saves.incrementAndGet();
+        return String.format("{\"title\":\"load %d-%d\",\"description\":\"%s %s load test\",\"userId\":\"%s\",\"userName\":\"loadtest\"}",
+                n, random().nextInt(1_000_000), WORDS[random().nextInt(WORDS.length)],
+                WORDS[random().nextInt(WORDS.length)], randomUser());
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest json(String path, String method, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .header("Accept", "application/json")
+                .timeout(OpenLoopDriver.REQUEST_TIMEOUT);
+    }
+
+    private UUID randomLive() {
+        return live.get(random().nextInt(live.size()));
+    }
+
+    private String randomLive(int count) {
+        return random().ints(count, 0, live.size())
+                .mapToObj(i -> "\"" + live.get(i) + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private UUID randomUser() {
+        return users.get(random().nextInt(users.size()));
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    private static Map<String, Integer> defaultMix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("list", 15);
+        mix.put("filter", 15);
+        mix.put("get", 35);
+        mix.put("search", 5);
+        mix.put("timeline", 5);
+        mix.put("batch-get", 3);
+        mix.put("stats", 2);
+        mix.put("patch", 10);
+        mix.put("save", 5);
+        mix.put("delete", 5);
+        return Collections.unmodifiableMap(mix);
+    }
+}
@@ -0,0 +1,21 @@
+package videos.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * The faststart profile turns on lazy initialization; this keeps the application's own beans, and with
+ * them the data source, JPA, Flyway and the web stack they depend on, eager. What stays lazy is what no
+ * request to /api/videos needs: springdoc, most actuator endpoints and unused auto-configuration.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("faststart")
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerApplicationBeans() {
+        return (beanName, definition, beanType) -> beanType.getName().startsWith("videos.");
+    }
+}
@@ -0,0 +1,46 @@
+package videos.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import videos.util.CommonUtil;
+
+/**
+ * Controllers tag responses without knowing which format the body will be written in. Once it is
+ * negotiated, Smile and CBOR responses get the suffixed tag of their representation, and a binary client
+ * revalidating with that tag is answered with 304 here; JSON tags are compared before this runs.
+ */
+@ControllerAdvice
+public class RepresentationETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String eTag = response.getHeaders().getETag();
+        if (eTag == null)
+            return body;
+        String tagged = CommonUtil.representationETag(eTag, selectedContentType);
+        if (tagged.equals(eTag))
+            return body;
+        response.getHeaders().setETag(tagged);
+        if (HttpMethod.GET.equals(request.getMethod())
+                && tagged.equals(CommonUtil.matchETag(request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), tagged))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return null;
+        }
+        return body;
+    }
+}
@@ -6,20 +6,55 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import videos.dto.ArchivePurgeResultDTO;
+import videos.dto.BatchGetRequestDTO;
+import videos.dto.BatchGetResultDTO;
+import videos.dto.BulkItemResultDTO;
+import videos.dto.ChangeFeedDTO;
+import videos.dto.ClaimRequestDTO;
+import videos.dto.ClaimResultDTO;
+import videos.dto.CompletionRequestDTO;
+import videos.dto.CompletionResultDTO;
+import videos.dto.CursorPageDTO;
 import videos.dto.VideoDTO;
+import videos.dto.VideoStatsDTO;
+import videos.service.ChangeFeedService;
+import videos.service.VideoArchiveService;
+import videos.service.VideoBulkService;
+import videos.service.VideoClaimService;
+import videos.service.VideoExportService;
+import videos.service.VideoSearchService;
 import videos.service.VideoService;
+import videos.service.VideoStatsService;
+import videos.util.CommonUtil;
+import videos.util.VideoField;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 import java.util.UUID;
 
 @Slf4j
@@ -27,11 +62,34 @@ import java.util.UUID;
 @RequestMapping("/api/videos")
 public class VideosController {
 
+    private static final int MAX_FILTER_PAGE_SIZE = 500;
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_CHANGE_BATCH_SIZE = 1000;
+    private static final int MAX_CHANGE_WAIT_SECONDS = 60;
+
     private final VideoService service;
+    private final VideoBulkService bulkService;
+    private final VideoExportService exportService;
+    private final VideoSearchService searchService;
+    private final ChangeFeedService changeFeedService;
+    private final VideoStatsService statsService;
+    private final VideoArchiveService archiveService;
+    private final VideoClaimService claimService;
 
     @Autowired
-    public VideosController(VideoService service) {
+    public VideosController(VideoService service, VideoBulkService bulkService, VideoExportService exportService,
+                            VideoSearchService searchService, ChangeFeedService changeFeedService,
+                            VideoStatsService statsService, VideoArchiveService archiveService,
+                            VideoClaimService claimService) {
         this.service = service;
+        this.bulkService = bulkService;
+        this.exportService = exportService;
+        this.searchService = searchService;
+        this.changeFeedService = changeFeedService;
+        this.statsService = statsService;
+        this.archiveService = archiveService;
+        this.claimService = claimService;
     }
 
     @GetMapping("/ping")
@@ -41,42 +99,223 @@ public class VideosController {
     }
 
     @GetMapping
-    @Operation(summary = "Retrieve All videos (Paginated)", description = "Retrieve a paginated list of all available videos in the system.")
+    @Operation(summary = "Retrieve All videos (Paginated)", description = "Retrieve a paginated list of all available videos in the system. Pass fields (e.g. id,title,completed) to read and return only those columns; id and updated are always included.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the videos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
             @ApiResponse(responseCode = "400", description = "Invalid pagination request", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
-    public ResponseEntity<Page<VideoDTO>> getVideos(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
-        log.debug("Fetching videos with pagination - page: {}, size: {}", page, size);
-        Page<VideoDTO> videoPage = service.findAll(PageRequest.of(page, size));
-        return ResponseEntity.ok(videoPage);
+    public ResponseEntity<Page<VideoDTO>> getVideos(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
+                                                    @RequestParam(required = false) String fields) {
+        log.debug("Fetching videos with pagination - page: {}, size: {}, fields: {}", page, size, fields);
+        Page<VideoDTO> videoPage = service.findAll(PageRequest.of(page, size), VideoField.parse(fields));
+        return ResponseEntity.ok()
+                .eTag(CommonUtil.buildListETag(videoPage.getContent(), videoPage.getTotalElements(), videoPage.getTotalPages()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .lastModified(CommonUtil.lastModified(videoPage.getContent()))
+                .body(videoPage);
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Retrieve All videos (Cursor)", description = "Retrieve videos newest first using an opaque continuation cursor. Pass an empty cursor for the first page; no count query is run unless includeTotal is set, in which case an approximate total is returned.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the videos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<CursorPageDTO<VideoDTO>> getVideos(@RequestParam String cursor,
+                                                             @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_CURSOR_PAGE_SIZE) int size,
+                                                             @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Fetching videos with cursor - cursor: {}, size: {}, includeTotal: {}", cursor, size, includeTotal);
+        CursorPageDTO<VideoDTO> videoPage = service.findAll(cursor, size, includeTotal);
+        return ResponseEntity.ok()
+                .eTag(CommonUtil.buildListETag(videoPage.getContent(), videoPage.getNextCursor(), videoPage.getApproximateTotal()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .lastModified(CommonUtil.lastModified(videoPage.getContent()))
+                .body(videoPage);
+    }
+
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "Retrieve a user's videos", description = "Retrieve the videos of one user newest first, optionally filtered by completion status, using an opaque continuation cursor. Omit the cursor for the first page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the user's videos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<CursorPageDTO<VideoDTO>> getUserVideos(@PathVariable UUID userId,
+                                                                 @RequestParam(required = false) Boolean completed,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_CURSOR_PAGE_SIZE) int size) {
+        log.debug("Fetching videos of user - userId: {}, completed: {}, cursor: {}, size: {}", userId, completed, cursor, size);
+        CursorPageDTO<VideoDTO> videoPage = service.findByUserId(userId, completed, cursor, size);
+        return ResponseEntity.ok()
+                .eTag(CommonUtil.buildListETag(videoPage.getContent(), videoPage.getNextCursor()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .lastModified(CommonUtil.lastModified(videoPage.getContent()))
+                .body(videoPage);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Catalog completion statistics", description = "Total and completed videos across the catalog and the completion rate. Served from maintained counters, so the cost does not depend on catalog size.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VideoStatsDTO.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<VideoStatsDTO> getStats() {
+        log.debug("Fetching catalog stats");
+        return ResponseEntity.ok(statsService.get(null));
+    }
+
+    @GetMapping("/stats/users/{userId}")
+    @Operation(summary = "User completion statistics", description = "Total and completed videos of one user and the completion rate.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VideoStatsDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid user id", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<VideoStatsDTO> getUserStats(@PathVariable UUID userId) {
+        log.debug("Fetching stats of user - userId: {}", userId);
+        return ResponseEntity.ok(statsService.get(userId));
     }
 
     @GetMapping("/filter")
-    @Operation(summary = "Retrieve Videos by Filters", description = "Retrieve a list of videos filtered by userId, title, or completion status.")
+    @Operation(summary = "Retrieve Videos by Filters", description = "Retrieve a bounded page of videos filtered by id, userId, title, or completion status. Pass fields (e.g. id,title,completed) to read and return only those columns; id and updated are always included.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully found the videos matching the filters", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = VideoDTO.class)))),
             @ApiResponse(responseCode = "400", description = "Invalid filter parameters", content = @Content),
             @ApiResponse(responseCode = "404", description = "No videos found matching the criteria", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
-    public ResponseEntity<List<VideoDTO>> getVideos(@RequestParam(required = false) UUID id, @RequestParam(required = false) String title, @RequestParam(required = false) Boolean completed) {
-        log.debug("Fetching videos with filters - id: {}, title: {}, completed: {}", id, title, completed);
-        List<VideoDTO> videos = service.findAllWithFilters(id, title, completed);
-        return ResponseEntity.ok(videos);
+    public ResponseEntity<List<VideoDTO>> getVideos(@RequestParam(required = false) UUID id,
+                                                    @RequestParam(required = false) UUID userId,
+                                                    @RequestParam(required = false) String title,
+                                                    @RequestParam(required = false) Boolean completed,
+                                                    @RequestParam(defaultValue = "0") @Min(0) int page,
+                                                    @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_FILTER_PAGE_SIZE) int size,
+                                                    @RequestParam(required = false) String fields) {
+        log.debug("Fetching videos with filters - id: {}, userId: {}, title: {}, completed: {}, page: {}, size: {}, fields: {}",
+                id, userId, title, completed, page, size, fields);
+        List<VideoDTO> videos = service.findAllWithFilters(id, userId, title, completed, PageRequest.of(page, size),
+                VideoField.parse(fields));
+        return ResponseEntity.ok()
+                .eTag(CommonUtil.buildListETag(videos))
+                .varyBy(HttpHeaders.ACCEPT)
+                .lastModified(CommonUtil.lastModified(videos))
+                .body(videos);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search videos", description = "Full-text search over title and description, newest first. Every word of the query must match; words of two or more characters also match as prefixes.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully searched the videos", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = VideoDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid query or limit", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Search index is disabled or still being built", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<List<VideoDTO>> searchVideos(@RequestParam @NotBlank String q,
+                                                       @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_SEARCH_RESULTS) int limit) {
+        log.debug("Search videos - q: {}, limit: {}", q, limit);
+        return ResponseEntity.ok(searchService.search(q, limit));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Poll the change feed", description = "Returns up to limit changes with a sequence number greater than since, in order. When there are none, waits up to wait seconds for one before answering. Pass nextSince from the response on the next call.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully read the change feed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ChangeFeedDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid since, limit or wait", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<ChangeFeedDTO> getChanges(@RequestParam(defaultValue = "0") @Min(0) long since,
+                                                    @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_CHANGE_BATCH_SIZE) int limit,
+                                                    @RequestParam(defaultValue = "0") @Min(0) @Max(MAX_CHANGE_WAIT_SECONDS) int wait) {
+        log.debug("Polling changes - since: {}, limit: {}, wait: {}", since, limit, wait);
+        return ResponseEntity.ok(changeFeedService.poll(since, limit, Duration.ofSeconds(wait)));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the change feed", description = "Streams changes after since (or the Last-Event-ID header on reconnect) as Server-Sent Events. Each event carries its sequence number as id and the change type as event name.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Change stream opened", content = @Content(mediaType = "text/event-stream")),
+            @ApiResponse(responseCode = "400", description = "Invalid since or limit", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public SseEmitter streamChanges(@RequestParam(defaultValue = "0") @Min(0) long since,
+                                    @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_CHANGE_BATCH_SIZE) int limit,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? Math.max(since, lastEventId) : since;
+        log.debug("Streaming changes - since: {}, limit: {}", from, limit);
+        return changeFeedService.stream(from, limit);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all videos", description = "Streams every video, optionally filtered by userId or completion status, as NDJSON or CSV.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully streamed the videos", content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> exportVideos(@RequestParam(required = false) UUID userId,
+                                                              @RequestParam(required = false) Boolean completed,
+                                                              @RequestParam(defaultValue = "ndjson") String format) {
+        log.debug("Export videos - userId: {}, completed: {}, format: {}", userId, completed, format);
+        VideoExportService.Format exportFormat = VideoExportService.Format.of(format);
+        StreamingResponseBody body = out -> exportService.export(exportFormat, userId, completed, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=videos." + exportFormat.extension())
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Retrieve a video by ID", description = "Fetch a video from the system using its unique ID.")
+    @Operation(summary = "Retrieve a video by ID", description = "Fetch a video from the system using its unique ID. Pass fields (e.g. id,title,completed) to read and return only those columns; id and updated are always included.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the video", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VideoDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Video not modified since the given ETag or date", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Unknown field", content = @Content),
             @ApiResponse(responseCode = "404", description = "Video not found", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
-    public ResponseEntity<VideoDTO> getVideoById(@PathVariable UUID id) {
-        log.debug("Fetch video By Id: [Id: {}]", id);
-        return ResponseEntity.ok(service.findById(id));
+    public ResponseEntity<VideoDTO> getVideoById(@PathVariable UUID id, @RequestParam(required = false) String fields,
+                                                 WebRequest request) {
+        log.debug("Fetch video By Id: [Id: {}, fields: {}]", id, fields);
+        Set<VideoField> selected = VideoField.parse(fields);
+
+        // a conditional request is decided from the version column alone, the entity is only loaded when the
+        // client copy is stale; an unconditional one goes straight to the cache
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Instant lastModified = service.findLastModified(id);
+            // the client's tag carries the suffix of the representation it holds, so it is echoed back
+            String matched = CommonUtil.matchETag(ifNoneMatch, CommonUtil.buildETag(id, lastModified));
+            if (matched != null)
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(matched).varyBy(HttpHeaders.ACCEPT)
+                        .lastModified(lastModified).build();
+            if (ifNoneMatch == null && request.checkNotModified(lastModified.toEpochMilli()))
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT)
+                        .lastModified(lastModified).build();
+        }
+
+        VideoDTO video = service.findById(id, selected);
+        return ResponseEntity.ok()
+                .eTag(CommonUtil.buildETag(video))
+                .varyBy(HttpHeaders.ACCEPT)
+                .lastModified(CommonUtil.lastModified(video))
+                .body(video);
+    }
+
+    @PostMapping("/batch-get")
+    @Operation(summary = "Retrieve videos by ids", description = "Resolves up to 500 ids in one round trip, in request order. Ids that do not exist are listed under missing.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully resolved the ids", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchGetResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized id list", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<BatchGetResultDTO> getVideosByIds(@Valid @RequestBody BatchGetRequestDTO request) {
+        log.debug("video: batchGet[count: {}]", request.getIds().size());
+        List<VideoDTO> videos = service.findAllById(request.getIds());
+        Set<UUID> found = videos.stream().map(VideoDTO::getId).collect(Collectors.toSet());
+        List<UUID> missing = request.getIds().stream().distinct().filter(id -> !found.contains(id)).toList();
+        return ResponseEntity.ok(new BatchGetResultDTO(videos, missing));
     }
 
     @PatchMapping("/{id}")
@@ -88,13 +327,24 @@ public class VideosController {
     })
     public ResponseEntity<VideoDTO> setCompleted(@PathVariable UUID id) {
         log.debug("video: setCompleted[Id: {}]", id);
-        VideoDTO result = service.findById(id);
-        result.setCompleted(true);
-        VideoDTO saved = service.save(result);
+        VideoDTO result = service.markCompleted(id);
 
         URI location = ServletUriComponentsBuilder.fromCurrentRequest().buildAndExpand(result.getId()).toUri();
 
-        return ResponseEntity.status(HttpStatus.OK).location(location).body(saved);
+        return ResponseEntity.status(HttpStatus.OK).location(location).body(result);
+    }
+
+    @PatchMapping("/completed")
+    @Operation(summary = "Mark videos as completed in bulk", description = "Marks the given video ids, or all videos of a user, as completed in a single statement and returns how many videos changed.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully marked the videos as completed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CompletionResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and userId given", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<CompletionResultDTO> setCompleted(@Valid @RequestBody CompletionRequestDTO request) {
+        log.debug("video: setCompleted[ids: {}, userId: {}]", request.getIds(), request.getUserId());
+        int updated = service.markCompleted(request.getIds(), request.getUserId());
+        return ResponseEntity.ok(new CompletionResultDTO(updated));
     }
 
     @RequestMapping(method = {RequestMethod.POST, RequestMethod.PUT})
@@ -102,15 +352,74 @@ public class VideosController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully saved or updated the video", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VideoDTO.class))),
             @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Title already taken or video modified concurrently", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
     public ResponseEntity<VideoDTO> saveVideo(@Valid @RequestBody VideoDTO video) {
-        log.debug("save: [{}]", video.toString());
+        log.debug("save: [{}]", video);
         VideoDTO result = service.save(video);
         URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(result.getId()).toUri();
         return ResponseEntity.status(HttpStatus.OK).location(location).body(result);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            "application/x-jackson-smile", MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Create or Update videos in bulk", description = "Accepts a JSON array or an NDJSON stream of videos (or Smile/CBOR, optionally gzip encoded), persists them in JDBC batches and streams back one result per item in the request format.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Payload processed, see the per-item results", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BulkItemResultDTO.class)))),
+            @ApiResponse(responseCode = "415", description = "Unsupported payload format", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> saveVideos(HttpServletRequest request) {
+        VideoBulkService.Format format = VideoBulkService.Format.of(MediaType.parseMediaType(request.getContentType()));
+        boolean gzip = "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        log.debug("bulk save: [format: {}, gzip: {}]", format, gzip);
+        StreamingResponseBody body = out -> {
+            InputStream in = gzip ? new GZIPInputStream(request.getInputStream()) : request.getInputStream();
+            bulkService.ingest(in, out, format);
+        };
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(body);
+    }
+
+    @PostMapping("/claims")
+    @Operation(summary = "Claim incomplete videos", description = "Leases up to limit incomplete, unleased videos to the worker in one transaction. Concurrent claims never return the same video. Renew before leaseExpires; an expired lease puts the video back in the queue and completing it releases the lease.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully leased the videos, possibly none", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClaimResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<ClaimResultDTO> claimVideos(@Valid @RequestBody ClaimRequestDTO request) {
+        log.debug("Claim videos - worker: {}, limit: {}", request.getWorker(), request.getLimit());
+        return ResponseEntity.ok(claimService.claim(request));
+    }
+
+    @PostMapping("/claims/renew")
+    @Operation(summary = "Renew video leases", description = "Extends the worker's live leases on the given ids. Ids missing from renewed have lost their lease.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully renewed the leases still held", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClaimResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<ClaimResultDTO> renewClaims(@Valid @RequestBody ClaimRequestDTO request) {
+        log.debug("Renew claims - worker: {}, ids: {}", request.getWorker(), request.getIds() == null ? null : request.getIds().size());
+        return ResponseEntity.ok(claimService.renew(request));
+    }
+
+    @DeleteMapping("/archive")
+    @Operation(summary = "Purge archived videos", description = "Deletes archived videos of a user and/or archived before a time, in chunks. If more is true the run hit its time budget; repeat the request.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully purged the matching archived videos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArchivePurgeResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Neither userId nor archivedBefore given", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    public ResponseEntity<ArchivePurgeResultDTO> purgeArchive(@RequestParam(required = false) UUID userId,
+                                                              @RequestParam(required = false) Instant archivedBefore) {
+        log.debug("Purge archived videos - userId: {}, archivedBefore: {}", userId, archivedBefore);
+        return ResponseEntity.ok(archiveService.purge(userId, archivedBefore));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a video by ID", description = "Deletes a video from the system using its unique ID.")
     @ApiResponses({
@@ -0,0 +1,43 @@
+package videos.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Identifies the client of each request, by {@value #CLIENT_HEADER} or else the remote address, and
+ * records a write for it once a mutating request has succeeded.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+    // POST endpoints that only read
+    private static final String BATCH_GET_SUFFIX = "/batch-get";
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String client = request.getHeader(CLIENT_HEADER);
+        tracker.begin(client == null || client.isBlank() ? request.getRemoteAddr() : client);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        tracker.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())
+                && !request.getRequestURI().endsWith(BATCH_GET_SUFFIX) && ex == null && response.getStatus() < 400)
+            tracker.recordWrite();
+        tracker.end();
+    }
+}
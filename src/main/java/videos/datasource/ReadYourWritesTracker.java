@@ -0,0 +1,43 @@
+package videos.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Remembers which clients wrote recently so their reads stay on the primary until the replicas have
+ * had {@code window} to catch up. The client of the current request is held per thread.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void begin(String client) {
+        CURRENT_CLIENT.set(client);
+    }
+
+    public void end() {
+        CURRENT_CLIENT.remove();
+    }
+
+    public void recordWrite() {
+        String client = CURRENT_CLIENT.get();
+        if (client != null)
+            recentWriters.put(client, Boolean.TRUE);
+    }
+
+    public boolean requiresPrimary() {
+        String client = CURRENT_CLIENT.get();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+}
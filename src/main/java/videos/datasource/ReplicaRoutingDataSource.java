@@ -0,0 +1,66 @@
+package videos.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source of connections for read-only transactions: round-robin over the replica pools, or the primary
+ * while the current client is inside its read-your-writes window or when no replica is configured.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> reads = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    ReadYourWritesTracker readYourWrites, MeterRegistry registry) {
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        reads.put(PRIMARY, readCounter(PRIMARY, registry));
+        for (HikariDataSource replica : replicas) {
+            targets.put(replica.getPoolName(), replica);
+            reads.put(replica.getPoolName(), readCounter(replica.getPoolName(), registry));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String route = replicas.isEmpty() || readYourWrites.requiresPrimary()
+                ? PRIMARY
+                : replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size())).getPoolName();
+        reads.get(route).increment();
+        return route;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    private static Counter readCounter(String route, MeterRegistry registry) {
+        return Counter.builder("video.datasource.reads")
+                .description("Read-only transactions routed to each pool")
+                .tag("route", route)
+                .register(registry);
+    }
+}
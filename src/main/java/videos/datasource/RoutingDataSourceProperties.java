@@ -0,0 +1,20 @@
+package videos.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Replicas that read-only transactions are spread over when {@code videos.datasource.routing.enabled} is
+ * set. Replica credentials default to the primary's.
+ */
+@ConfigurationProperties("videos.datasource.routing")
+public record RoutingDataSourceProperties(boolean enabled,
+                                          @DefaultValue("PT5S") Duration readYourWritesWindow,
+                                          @DefaultValue List<Replica> replicas) {
+
+    public record Replica(String url, String username, String password, @DefaultValue("10") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,45 @@
+package videos.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * A completed video moved out of tbl_video by the archive job. Rows are written and removed with plain SQL
+ * in chunks, never through the entity.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+@Entity(name = "tbl_video_archive")
+public class ArchivedVideo {
+
+    @Id
+    @JdbcTypeCode(value = Types.VARBINARY)
+    @Column(columnDefinition = "VARBINARY(16)", updatable = false, nullable = false)
+    private UUID id;
+
+    private String title;
+    private String description;
+
+    @JdbcTypeCode(value = Types.VARBINARY)
+    @Column(columnDefinition = "VARBINARY(16)")
+    private UUID userId;
+
+    private String userName;
+    private Boolean completed;
+    private Timestamp created;
+    private Timestamp updated;
+    private long version;
+    private Timestamp archived;
+}
@@ -8,6 +8,7 @@ import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import videos.metrics.EntityLoadListener;
 
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -16,12 +17,13 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @MappedSuperclass
+@EntityListeners(EntityLoadListener.class)
 @SuperBuilder
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public sealed abstract class BaseEntity permits Video {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     @JdbcTypeCode(value = Types.VARBINARY)
     @Column(columnDefinition = "VARBINARY(16)", updatable = false, nullable = false)
     private UUID id;
@@ -38,4 +40,8 @@ public sealed abstract class BaseEntity permits Video {
     @Column(updatable = true, nullable = true)
     private Timestamp updated;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
 }
@@ -0,0 +1,57 @@
+package videos.domain;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 version 7 layout: 48 bit unix millis, 12 bit sequence, 62 random bits. The sequence keeps ids
+ * generated within the same millisecond ordered; when it overflows the timestamp is borrowed forward.
+ * Ids already assigned to the entity are kept, so existing (random v4) ids continue to work.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int SEQUENCE_BITS = 12;
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (owner instanceof BaseEntity entity && entity.getId() != null)
+            return entity.getId();
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis();
+        long last;
+        long state;
+        do {
+            last = LAST.get();
+            state = now > (last >>> SEQUENCE_BITS)
+                    // start each millisecond in the lower half of the sequence to leave room for increments
+                    ? (now << SEQUENCE_BITS) | RANDOM.nextInt(1 << (SEQUENCE_BITS - 1))
+                    : last + 1;
+        } while (!LAST.compareAndSet(last, state));
+
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -1,18 +1,20 @@
 package videos.domain;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import lombok.experimental.SuperBuilder;
 
-import java.util.UUID;
+import java.sql.Timestamp;
 
 @EqualsAndHashCode(callSuper = true)
 @ToString(callSuper = true)
 @Getter
 @Setter
-@Builder
+@SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "tbl_video")
@@ -26,8 +28,14 @@ public final class Video extends BaseEntity {
     @Size(min = 1, max = 100, message = "description must be between 1 and 100 characters")
     private String description;
 
-    private UUID userId;
     private String userName;
 
     private Boolean completed;
+
+    // work-queue lease, written only by the claim, renew and completion queries; never part of the DTO
+    @Column(length = 64, insertable = false, updatable = false)
+    private String leaseOwner;
+
+    @Column(insertable = false, updatable = false)
+    private Timestamp leaseExpires;
 }
@@ -0,0 +1,47 @@
+package videos.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import videos.event.VideoChangedEvent;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * One row of the change outbox. {@code payload} is the video as JSON after the change, or before it for
+ * deletions. {@code seq} is the feed position, assigned by {@link videos.service.ChangeSequencer} when the
+ * transaction commits; {@code id} is drawn from a pooled sequence and implies no order.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity(name = "tbl_video_change")
+public class VideoChange {
+
+    @Id
+    // pooled, so outbox inserts are batched; an identity key would be fetched one insert at a time
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "video_change_id")
+    @SequenceGenerator(name = "video_change_id", sequenceName = "seq_video_change_id", allocationSize = 50)
+    private Long id;
+
+    @Column(insertable = false, updatable = false)
+    private Long seq;
+
+    @JdbcTypeCode(value = Types.VARBINARY)
+    @Column(columnDefinition = "VARBINARY(16)", updatable = false, nullable = false)
+    private UUID videoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, updatable = false, nullable = false)
+    private VideoChangedEvent.Type type;
+
+    @Column(columnDefinition = "text", updatable = false)
+    private String payload;
+
+    @Column(updatable = false, nullable = false)
+    private Timestamp created;
+}
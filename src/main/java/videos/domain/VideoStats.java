@@ -0,0 +1,32 @@
+package videos.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * Flushed completion totals of one user, or of the whole catalog for the all-zero user id.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity(name = "tbl_video_stats")
+public class VideoStats {
+
+    @Id
+    @JdbcTypeCode(value = Types.VARBINARY)
+    @Column(columnDefinition = "VARBINARY(16)", updatable = false, nullable = false)
+    private UUID userId;
+
+    private long total;
+    private long completed;
+    private Timestamp updated;
+}
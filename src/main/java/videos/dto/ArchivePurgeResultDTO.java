@@ -0,0 +1,15 @@
+package videos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivePurgeResultDTO {
+
+    private long purged;
+    // the run stopped at videos.archive.max-run-time with rows still matching; repeat the request
+    private boolean more;
+}
@@ -10,7 +10,7 @@ import java.util.UUID;
 
 @Data
 @NoArgsConstructor
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 public class BaseDTO {
 
     @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -19,4 +19,6 @@ public class BaseDTO {
     private LocalDateTime created;
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private LocalDateTime updated;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
 }
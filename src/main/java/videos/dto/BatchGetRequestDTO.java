@@ -0,0 +1,22 @@
+package videos.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetRequestDTO {
+
+    @NotNull(message = "ids are required")
+    @Size(min = 1, max = 500, message = "ids must contain between 1 and 500 entries")
+    private List<@NotNull UUID> ids;
+}
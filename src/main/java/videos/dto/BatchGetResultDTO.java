@@ -0,0 +1,19 @@
+package videos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetResultDTO {
+
+    private List<VideoDTO> videos;
+    private List<UUID> missing;
+}
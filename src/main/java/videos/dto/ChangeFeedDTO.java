@@ -0,0 +1,22 @@
+package videos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDTO {
+
+    private List<VideoChangeDTO> changes;
+
+    /**
+     * Value to pass as {@code since} on the next call.
+     */
+    private long nextSince;
+}
@@ -0,0 +1,39 @@
+package videos.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Body of POST /api/videos/claims (limit) and POST /api/videos/claims/renew (ids).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimRequestDTO {
+
+    @NotBlank(message = "worker is required")
+    @Size(max = 64, message = "worker must be at most 64 characters")
+    private String worker;
+
+    @Min(value = 1, message = "limit must be between 1 and 500")
+    @Max(value = 500, message = "limit must be between 1 and 500")
+    private Integer limit;
+
+    @Size(min = 1, max = 1000, message = "ids must contain between 1 and 1000 entries")
+    private List<UUID> ids;
+
+    // lease length; videos.claims.lease-duration when absent
+    @Min(value = 1, message = "leaseSeconds must be between 1 and 3600")
+    @Max(value = 3600, message = "leaseSeconds must be between 1 and 3600")
+    private Integer leaseSeconds;
+}
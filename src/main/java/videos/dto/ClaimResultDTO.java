@@ -0,0 +1,28 @@
+package videos.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The videos leased by a claim, or the ids whose lease a renew extended; any id missing from a renew has
+ * lost its lease and may already be claimed by another worker.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClaimResultDTO {
+
+    private String worker;
+    private Instant leaseExpires;
+    private List<VideoDTO> videos;
+    private List<UUID> renewed;
+}
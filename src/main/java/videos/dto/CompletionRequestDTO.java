@@ -0,0 +1,22 @@
+package videos.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionRequestDTO {
+
+    @Size(min = 1, max = 1000, message = "ids must contain between 1 and 1000 entries")
+    private List<UUID> ids;
+
+    private UUID userId;
+}
@@ -0,0 +1,13 @@
+package videos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionResultDTO {
+
+    private int updated;
+}
@@ -0,0 +1,24 @@
+package videos.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VideoChangeDTO {
+
+    private long seq;
+    private String type;
+    private UUID videoId;
+    private LocalDateTime created;
+    private VideoDTO video;
+}
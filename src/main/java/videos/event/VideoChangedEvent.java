@@ -0,0 +1,32 @@
+package videos.event;
+
+import videos.dto.VideoDTO;
+
+import java.util.UUID;
+
+/**
+ * Published by the video service inside the transaction that changes a video. {@code before} is null for
+ * creations and {@code after} is null for deletions.
+ */
+public record VideoChangedEvent(Type type, UUID id, VideoDTO before, VideoDTO after) {
+
+    public enum Type {
+        CREATED, UPDATED, COMPLETED, DELETED
+    }
+
+    public static VideoChangedEvent created(VideoDTO after) {
+        return new VideoChangedEvent(Type.CREATED, after.getId(), null, after);
+    }
+
+    public static VideoChangedEvent updated(VideoDTO before, VideoDTO after) {
+        return new VideoChangedEvent(Type.UPDATED, after.getId(), before, after);
+    }
+
+    public static VideoChangedEvent completed(VideoDTO before, VideoDTO after) {
+        return new VideoChangedEvent(Type.COMPLETED, after.getId(), before, after);
+    }
+
+    public static VideoChangedEvent deleted(VideoDTO before) {
+        return new VideoChangedEvent(Type.DELETED, before.getId(), before, null);
+    }
+}
@@ -0,0 +1,28 @@
+package videos.exception;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a bulkhead is full. Rejections are meant to be cheap under overload, so no stack trace is
+ * captured.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class ConcurrencyLimitExceededException extends VideoServiceException {
+
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitExceededException(String bulkhead, Duration retryAfter) {
+        super(bulkhead, HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent requests, retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
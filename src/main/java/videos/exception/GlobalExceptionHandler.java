@@ -9,6 +9,8 @@ import org.springframework.beans.TypeMismatchException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -137,12 +139,43 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     }
 
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<Object> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex, WebRequest request) {
+        // shed load quietly, an error line per rejected request would add to the overload
+        log.debug(ex.toString());
+        ResponseEntity<Object> response = CommonUtil.buildErrorResponse(ex, request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(VideoNotFoundException.class)
+    public ResponseEntity<Object> handleVideoNotFound(VideoNotFoundException ex, WebRequest request) {
+        // an expected outcome for unknown ids and titles, not a service error
+        log.debug(ex.toString());
+        return CommonUtil.buildErrorResponse(ex, request);
+    }
+
     @ExceptionHandler(VideoServiceException.class)
     public ResponseEntity<Object> handleVideoServiceException(VideoServiceException ex, WebRequest request) {
         log.error(ex.toString());
         return CommonUtil.buildErrorResponse(ex, request);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, WebRequest request) {
+        log.error(ex.toString());
+        return CommonUtil.buildErrorResponse(
+                new VideoServiceException("version", HttpStatus.CONFLICT, "Video was modified concurrently"), request);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolation(DataIntegrityViolationException ex, WebRequest request) {
+        log.error(ex.toString());
+        return CommonUtil.buildErrorResponse(
+                new VideoServiceException("video", HttpStatus.CONFLICT, "Video conflicts with an existing video"), request);
+    }
+
     @ExceptionHandler({Exception.class, RuntimeException.class})
     public ResponseEntity<Object> handleUnknownException(Exception ex, WebRequest request) {
         log.error(ex.toString());
@@ -0,0 +1,21 @@
+package videos.exception;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 404 for an unknown id or title. Unknown lookups are common (bots, stale clients) and the trace would
+ * only ever point at the same lookup, so none is captured.
+ */
+@EqualsAndHashCode(callSuper = true)
+public class VideoNotFoundException extends VideoServiceException {
+
+    public VideoNotFoundException(String entityName, String message) {
+        super(entityName, HttpStatus.NOT_FOUND, message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,100 @@
+package videos.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency, AIMD style: each call that completes within
+ * {@code tolerance} times the long-run average latency grows the limit by {@code 1/limit} (about one
+ * slot per round trip) while the limit is in use, and each slower call, or call that failed because the
+ * database was saturated, shrinks it by {@code backoff}. Callers that find the limit reached are rejected
+ * immediately instead of queueing on the connection pool.
+ */
+public class AdaptiveLimiter {
+
+    private static final double RTT_WINDOW = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    private volatile int limit;
+    // guarded by this
+    private double estimatedLimit;
+    private double averageRttNanos;
+
+    public AdaptiveLimiter(String bulkhead, int initialLimit, int minLimit, int maxLimit,
+                           double tolerance, double backoff, MeterRegistry registry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+
+        Gauge.builder("video.limiter.limit", this, AdaptiveLimiter::getLimit)
+                .tag("bulkhead", bulkhead)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("video.limiter.inflight", inFlight, AtomicInteger::get)
+                .tag("bulkhead", bulkhead)
+                .description("Calls currently holding a permit")
+                .register(registry);
+        this.rejected = Counter.builder("video.limiter.rejected")
+                .tag("bulkhead", bulkhead)
+                .description("Calls rejected because the limit was reached")
+                .register(registry);
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Returns a permit taken by {@link #tryAcquire()} and feeds the call's latency into the limit.
+     *
+     * @param overloaded whether the call failed because the database could not keep up
+     */
+    public void release(long rttNanos, boolean overloaded) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(rttNanos, overloaded, inFlightBefore);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, boolean overloaded, int inFlightBefore) {
+        if (averageRttNanos == 0)
+            averageRttNanos = rttNanos;
+        else
+            averageRttNanos += (rttNanos - averageRttNanos) / RTT_WINDOW;
+
+        if (overloaded || rttNanos > averageRttNanos * tolerance) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * backoff);
+        } else if (inFlightBefore * 2 >= estimatedLimit) {
+            // only grow while the limit is actually being used, otherwise an idle service ratchets up to max
+            estimatedLimit = Math.min(maxLimit, estimatedLimit + 1 / estimatedLimit);
+        }
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,99 @@
+package videos.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import videos.exception.ConcurrencyLimitExceededException;
+
+import java.lang.reflect.Method;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts the service layer behind two adaptive bulkheads so a burst of virtual threads is shed at the door
+ * instead of queueing on the JDBC pool. Methods that run in a read-write transaction use the write
+ * bulkhead, everything else the read bulkhead. Export is left out: it holds its cursor for the whole
+ * download and would pin a permit and distort the latency signal. Runs inside {@link
+ * videos.metrics.VideoMetricsAspect} so rejections are still timed, and outside the transaction advice so
+ * a rejected call never takes a connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "videos.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitAspect {
+
+    private final AdaptiveLimiter reads;
+    private final AdaptiveLimiter writes;
+    private final Duration retryAfter;
+    private final Map<Method, Boolean> writeMethods = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitAspect(MeterRegistry registry,
+                                  @Value("${videos.limiter.read.initial-limit:20}") int readInitialLimit,
+                                  @Value("${videos.limiter.read.max-limit:200}") int readMaxLimit,
+                                  @Value("${videos.limiter.write.initial-limit:10}") int writeInitialLimit,
+                                  @Value("${videos.limiter.write.max-limit:100}") int writeMaxLimit,
+                                  @Value("${videos.limiter.min-limit:2}") int minLimit,
+                                  @Value("${videos.limiter.tolerance:2.0}") double tolerance,
+                                  @Value("${videos.limiter.backoff:0.9}") double backoff,
+                                  @Value("${videos.limiter.retry-after:PT1S}") Duration retryAfter) {
+        this.reads = new AdaptiveLimiter("read", readInitialLimit, minLimit, readMaxLimit, tolerance, backoff, registry);
+        this.writes = new AdaptiveLimiter("write", writeInitialLimit, minLimit, writeMaxLimit, tolerance, backoff, registry);
+        this.retryAfter = retryAfter;
+    }
+
+    @Around("(execution(* videos.service.VideoService.*(..)) && !execution(* videos.service.VideoService.export(..)))" +
+            " || execution(* videos.service.VideoSearchService.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean write = isWrite(joinPoint);
+        AdaptiveLimiter limiter = write ? writes : reads;
+        if (!limiter.tryAcquire())
+            throw new ConcurrencyLimitExceededException(write ? "write" : "read", retryAfter);
+
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            overloaded = isOverload(t);
+            throw t;
+        } finally {
+            limiter.release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    private boolean isWrite(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        return writeMethods.computeIfAbsent(AopUtils.getMostSpecificMethod(method, targetClass), specific -> {
+            Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(specific, Transactional.class);
+            if (transactional == null)
+                transactional = AnnotatedElementUtils.findMergedAnnotation(targetClass, Transactional.class);
+            return transactional != null && !transactional.readOnly();
+        });
+    }
+
+    private static boolean isOverload(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientConnectionException
+                    || cause instanceof QueryTimeoutException)
+                return true;
+        }
+        return false;
+    }
+}
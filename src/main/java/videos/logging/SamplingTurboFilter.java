@@ -0,0 +1,104 @@
+package videos.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Marker;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thins out repetitive log lines of the configured loggers before any message is formatted. Each message
+ * template is tracked separately: enabled DEBUG/TRACE lines are sampled 1 in {@code debugSampleRate}, and
+ * INFO and above are limited to {@code maxPerSecond}. When a template was limited, the next admitted line is
+ * preceded by a count of what was dropped, and drops are counted in {@code video.log.suppressed}.
+ * <p>
+ * Configured in logback-spring.xml:
+ * <pre>{@code
+ * <turboFilter class="videos.logging.SamplingTurboFilter">
+ *     <logger>videos.service.VideoServiceImpl</logger>
+ *     <debugSampleRate>100</debugSampleRate>
+ *     <maxPerSecond>10</maxPerSecond>
+ * </turboFilter>
+ * }</pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    // templates are normally constants; this bounds the map if a caller logs pre-formatted strings
+    private static final int MAX_TEMPLATES = 1000;
+    private static final String SUPPRESSED = "{} similar log lines suppressed: {}";
+
+    private final Set<String> loggers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private int debugSampleRate = 100;
+    private int maxPerSecond = 10;
+
+    public void addLogger(String name) {
+        loggers.add(name);
+    }
+
+    public void setDebugSampleRate(int debugSampleRate) {
+        this.debugSampleRate = debugSampleRate;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    // SUPPRESSED is compared by identity so only the summary line written by this filter bypasses it
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || format == SUPPRESSED || !loggers.contains(logger.getName())
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()))
+            return FilterReply.NEUTRAL;
+
+        Window window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= MAX_TEMPLATES)
+                return FilterReply.NEUTRAL;
+            window = windows.computeIfAbsent(format, f -> new Window());
+        }
+
+        boolean admitted = level.toInt() < Level.INFO_INT
+                ? window.seen.getAndIncrement() % debugSampleRate == 0
+                : window.admit(logger, level, format);
+        if (admitted)
+            return FilterReply.NEUTRAL;
+        Metrics.counter("video.log.suppressed", "logger", logger.getName(), "level", level.toString()).increment();
+        return FilterReply.DENY;
+    }
+
+    private final class Window {
+
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicInteger admitted = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+        private volatile long second;
+
+        boolean admit(Logger logger, Level level, String format) {
+            long now = System.currentTimeMillis() / 1000;
+            if (now != second) {
+                long dropped = 0;
+                synchronized (this) {
+                    if (now != second) {
+                        second = now;
+                        admitted.set(0);
+                        dropped = suppressed.getAndSet(0);
+                    }
+                }
+                if (dropped > 0)
+                    logger.log(null, SamplingTurboFilter.class.getName(), Level.toLocationAwareLoggerInteger(level),
+                            SUPPRESSED, new Object[]{dropped, format}, null);
+            }
+            if (admitted.incrementAndGet() <= maxPerSecond)
+                return true;
+            suppressed.incrementAndGet();
+            return false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package videos.mapper;
 
 import org.mapstruct.*;
+import videos.domain.ArchivedVideo;
 import videos.domain.Video;
 import videos.dto.VideoDTO;
 
@@ -13,10 +14,22 @@ import java.time.LocalDateTime;
 )
 public interface VideoMapper {
     public VideoDTO toDTO(Video domain);
+
+    public VideoDTO toDTO(ArchivedVideo archived);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "created", ignore = true)
+    @Mapping(target = "updated", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "leaseOwner", ignore = true)
+    @Mapping(target = "leaseExpires", ignore = true)
     public Video toDomain(VideoDTO dto);
 
     @Mapping(target = "created", source = "created", qualifiedByName = "localDateTimeToTimestamp")
     @Mapping(target = "updated", source = "updated", qualifiedByName = "localDateTimeToTimestamp")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "leaseOwner", ignore = true)
+    @Mapping(target = "leaseExpires", ignore = true)
     public Video merge(VideoDTO from, @MappingTarget Video to);
 
     @Named("localDateTimeToTimestamp")
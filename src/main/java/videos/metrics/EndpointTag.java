@@ -0,0 +1,31 @@
+package videos.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Low-cardinality endpoint tag ({@code "GET /api/videos/{id}"}) for meters recorded below the controller.
+ */
+public final class EndpointTag {
+
+    public static final String NAME = "endpoint";
+    public static final String NONE = "none";
+
+    private EndpointTag() {
+    }
+
+    public static String current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes)
+            return of(servletAttributes.getRequest());
+        return NONE;
+    }
+
+    public static String of(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? NONE : request.getMethod() + " " + pattern;
+    }
+}
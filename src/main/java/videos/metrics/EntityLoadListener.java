@@ -0,0 +1,11 @@
+package videos.metrics;
+
+import jakarta.persistence.PostLoad;
+
+public class EntityLoadListener {
+
+    @PostLoad
+    public void postLoad(Object entity) {
+        RequestDbStats.entityLoaded();
+    }
+}
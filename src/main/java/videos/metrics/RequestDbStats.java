@@ -0,0 +1,56 @@
+package videos.metrics;
+
+/**
+ * Per-request tally of prepared Hibernate statements and loaded entities, bound to the request thread by
+ * {@link RequestMetricsInterceptor} and fed by Hibernate callbacks. Work done on another thread, such as a
+ * streaming response body, is not counted.
+ */
+public final class RequestDbStats {
+
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private int statementsPrepared;
+    private int entitiesLoaded;
+
+    private RequestDbStats() {
+    }
+
+    static RequestDbStats start() {
+        RequestDbStats stats = new RequestDbStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Binds a tally carried over from the initial dispatch of an async request to the async dispatch thread.
+     */
+    static void resume(RequestDbStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static RequestDbStats finish() {
+        RequestDbStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static void statementPrepared() {
+        RequestDbStats stats = CURRENT.get();
+        if (stats != null)
+            stats.statementsPrepared++;
+    }
+
+    static void entityLoaded() {
+        RequestDbStats stats = CURRENT.get();
+        if (stats != null)
+            stats.entitiesLoaded++;
+    }
+
+    int statementsPrepared() {
+        return statementsPrepared;
+    }
+
+    int entitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
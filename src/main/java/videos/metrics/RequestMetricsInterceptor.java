@@ -0,0 +1,61 @@
+package videos.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+@Component
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ASYNC_STATS = RequestMetricsInterceptor.class.getName() + ".stats";
+
+    private final MeterRegistry registry;
+
+    public RequestMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(ASYNC_STATS) instanceof RequestDbStats stats) {
+            request.removeAttribute(ASYNC_STATS);
+            RequestDbStats.resume(stats);
+        } else {
+            RequestDbStats.start();
+        }
+        return true;
+    }
+
+    // SSE and streaming responses leave the request thread here without afterCompletion; the tally is
+    // unbound so the pooled thread does not carry it into its next request, and is picked up again on the
+    // async dispatch that completes the request
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDbStats stats = RequestDbStats.finish();
+        if (stats != null)
+            request.setAttribute(ASYNC_STATS, stats);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDbStats stats = RequestDbStats.finish();
+        if (stats == null)
+            return;
+        String endpoint = EndpointTag.of(request);
+        DistributionSummary.builder("video.request.statements")
+                .description("SQL statements Hibernate prepared per request")
+                .tag(EndpointTag.NAME, endpoint)
+                .register(registry)
+                .record(stats.statementsPrepared());
+        DistributionSummary.builder("video.request.entities.loaded")
+                .description("Entities hydrated per request")
+                .tag(EndpointTag.NAME, endpoint)
+                .register(registry)
+                .record(stats.entitiesLoaded());
+    }
+}
@@ -0,0 +1,18 @@
+package videos.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registered through {@code hibernate.session_factory.statement_inspector}; called once for every SQL string
+ * Hibernate prepares and counts it against the current request. A batched statement is prepared once however
+ * many rows it carries, and statements issued through JdbcTemplate are not seen at all, so the count is of
+ * Hibernate prepares, not of database round trips.
+ */
+public class StatementPrepareCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestDbStats.statementPrepared();
+        return sql;
+    }
+}
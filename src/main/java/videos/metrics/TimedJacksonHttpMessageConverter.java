@@ -0,0 +1,81 @@
+package videos.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that records response serialization time as {@code video.serialization}, tagged by
+ * format. The Smile and CBOR variants extend Spring's converters so they replace the defaults.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final MeterRegistry registry;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+        super(objectMapper);
+        this.registry = registry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        time(registry, "json", () -> super.writeInternal(object, type, outputMessage));
+    }
+
+    public static class Smile extends MappingJackson2SmileHttpMessageConverter {
+
+        private final MeterRegistry registry;
+
+        public Smile(ObjectMapper objectMapper, MeterRegistry registry) {
+            super(objectMapper);
+            this.registry = registry;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            time(registry, "smile", () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    public static class Cbor extends MappingJackson2CborHttpMessageConverter {
+
+        private final MeterRegistry registry;
+
+        public Cbor(ObjectMapper objectMapper, MeterRegistry registry) {
+            super(objectMapper);
+            this.registry = registry;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            time(registry, "cbor", () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private static void time(MeterRegistry registry, String format, Write write) throws IOException {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            write.run();
+        } finally {
+            sample.stop(Timer.builder("video.serialization")
+                    .tag("format", format)
+                    .tag(EndpointTag.NAME, EndpointTag.current())
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package videos.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times the service, mapper and repository layers separately so database and mapping time can be told
+ * apart from the overall request latency. Runs outside the transaction advice, so {@code video.service}
+ * includes connection acquisition and commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class VideoMetricsAspect {
+
+    private final MeterRegistry registry;
+    // registering looks the meter up under the registry's lock on every call; the key set is bounded by
+    // layers x methods x endpoints x exception types
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public VideoMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* videos.service.VideoService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("video.service", joinPoint);
+    }
+
+    @Around("execution(* videos.mapper.VideoMapper.*(..))")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("video.mapper", joinPoint);
+    }
+
+    @Around("execution(* videos.repository.VideosRepository.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("video.repository", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(timer(new TimerKey(name, joinPoint.getSignature().getName(), EndpointTag.current(), exception)));
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        Timer timer = timers.get(key);
+        if (timer != null)
+            return timer;
+        return timers.computeIfAbsent(key, k -> Timer.builder(k.name())
+                .tag("method", k.method())
+                .tag(EndpointTag.NAME, k.endpoint())
+                .tag("exception", k.exception())
+                .register(registry));
+    }
+
+    private record TimerKey(String name, String method, String endpoint, String exception) {
+    }
+}
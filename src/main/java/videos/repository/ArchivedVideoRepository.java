@@ -0,0 +1,23 @@
+package videos.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import videos.domain.ArchivedVideo;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedVideoRepository extends JpaRepository<ArchivedVideo, UUID> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = VideosRepository.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select v.id from tbl_video_archive v")
+    Stream<UUID> streamIds();
+}
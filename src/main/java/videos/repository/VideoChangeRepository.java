@@ -0,0 +1,25 @@
+package videos.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import videos.domain.VideoChange;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface VideoChangeRepository extends JpaRepository<VideoChange, Long> {
+
+    @Query("select c from tbl_video_change c where c.seq > :since order by c.seq")
+    List<VideoChange> findAfter(long since, Limit limit);
+
+    @Query(value = "select last_seq from tbl_video_change_seq where id = 1", nativeQuery = true)
+    long findLastSeq();
+
+    @Modifying
+    @Query(value = "delete from tbl_video_change where created < :cutoff order by id limit :batchSize", nativeQuery = true)
+    int deleteOlderThan(Timestamp cutoff, int batchSize);
+}
@@ -0,0 +1,25 @@
+package videos.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import videos.domain.Video;
+import videos.dto.VideoDTO;
+import videos.util.VideoField;
+
+import java.util.List;
+import java.util.Set;
+
+public interface VideoProjectionRepository {
+
+    /**
+     * Selects only the columns of {@code fields} as scalars, so no entity is instantiated, managed or
+     * dirty-checked, and returns them as {@link VideoDTO}s with every other field left null.
+     */
+    List<VideoDTO> findProjected(Specification<Video> spec, Set<VideoField> fields, Pageable pageable);
+
+    /**
+     * One page of full videos, without the count query that {@code findAll(spec, pageable)} runs for its
+     * {@code Page}.
+     */
+    List<Video> findPage(Specification<Video> spec, Pageable pageable);
+}
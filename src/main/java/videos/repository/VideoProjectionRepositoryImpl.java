@@ -0,0 +1,103 @@
+package videos.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import videos.domain.Video;
+import videos.dto.VideoDTO;
+import videos.metrics.EndpointTag;
+import videos.util.VideoField;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Criteria queries behind the filter endpoint. Tuple queries for {@code ?fields=} record the estimated column
+ * bytes they read and the bytes a full-entity read of the same rows would have added, as
+ * {@code video.projection.bytes}.
+ */
+public class VideoProjectionRepositoryImpl implements VideoProjectionRepository {
+
+    private static final int FULL_ROW_BYTES = VideoField.bytes(EnumSet.allOf(VideoField.class));
+
+    private final EntityManager entityManager;
+    private final MeterRegistry registry;
+
+    public VideoProjectionRepositoryImpl(EntityManager entityManager, MeterRegistry registry) {
+        this.entityManager = entityManager;
+        this.registry = registry;
+    }
+
+    @Override
+    public List<VideoDTO> findProjected(Specification<Video> spec, Set<VideoField> fields, Pageable pageable) {
+        List<VideoField> selected = List.copyOf(fields);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Video> root = query.from(Video.class);
+        List<Selection<?>> columns = new ArrayList<>(selected.size());
+        for (VideoField field : selected)
+            columns.add(root.get(field.attribute()));
+        query.multiselect(columns);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null)
+            query.where(predicate);
+        if (pageable.getSort().isSorted())
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        List<VideoDTO> videos = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            VideoDTO video = new VideoDTO();
+            for (int i = 0; i < selected.size(); i++)
+                selected.get(i).set(video, row.get(i));
+            videos.add(video);
+        }
+        record(rows.size(), VideoField.bytes(fields));
+        return videos;
+    }
+
+    @Override
+    public List<Video> findPage(Specification<Video> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Video> query = cb.createQuery(Video.class);
+        Root<Video> root = query.from(Video.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null)
+            query.where(predicate);
+        if (pageable.getSort().isSorted())
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    private void record(int rows, int rowBytes) {
+        summary("read").record((double) rows * rowBytes);
+        summary("saved").record((double) rows * (FULL_ROW_BYTES - rowBytes));
+    }
+
+    private DistributionSummary summary(String kind) {
+        return DistributionSummary.builder("video.projection.bytes")
+                .description("Estimated column bytes per projected query, read and saved against a full-row read")
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .tag(EndpointTag.NAME, EndpointTag.current())
+                .register(registry);
+    }
+}
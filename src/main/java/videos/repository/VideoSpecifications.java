@@ -0,0 +1,47 @@
+package videos.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import videos.domain.Video;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class VideoSpecifications {
+
+    private VideoSpecifications() {
+    }
+
+    public static Specification<Video> hasId(UUID id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Video> hasUserId(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    /**
+     * Relies on the case-insensitive collation of {@code tbl_video.title} (see V2 migration), so the
+     * unique title index is still used instead of wrapping the column in {@code lower()}.
+     */
+    public static Specification<Video> hasTitle(String title) {
+        return (root, query, cb) -> cb.equal(root.get("title"), title);
+    }
+
+    public static Specification<Video> isCompleted(Boolean completed) {
+        return (root, query, cb) -> cb.equal(root.get("completed"), completed);
+    }
+
+    public static Specification<Video> withFilters(UUID id, UUID userId, String title, Boolean completed) {
+        List<Specification<Video>> specs = new ArrayList<>();
+        if (id != null)
+            specs.add(hasId(id));
+        if (userId != null)
+            specs.add(hasUserId(userId));
+        if (title != null)
+            specs.add(hasTitle(title));
+        if (completed != null)
+            specs.add(isCompleted(completed));
+        return Specification.allOf(specs);
+    }
+}
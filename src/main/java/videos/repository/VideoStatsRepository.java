@@ -0,0 +1,11 @@
+package videos.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import videos.domain.VideoStats;
+
+import java.util.UUID;
+
+@Repository
+public interface VideoStatsRepository extends JpaRepository<VideoStats, UUID> {
+}
@@ -0,0 +1,9 @@
+package videos.repository;
+
+import java.util.UUID;
+
+/**
+ * The searchable text of a video, streamed when the search index is (re)built.
+ */
+public record VideoText(UUID id, String title, String description) {
+}
@@ -0,0 +1,10 @@
+package videos.repository;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Just enough of a video to answer a conditional GET without loading the entity.
+ */
+public record VideoVersion(UUID id, Timestamp updated) {
+}
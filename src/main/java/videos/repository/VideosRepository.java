@@ -1,13 +1,117 @@
 package videos.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import videos.domain.Video;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface VideosRepository extends JpaRepository<Video, UUID> {
+public interface VideosRepository extends JpaRepository<Video, UUID>, JpaSpecificationExecutor<Video>,
+        VideoProjectionRepository {
+
+    String STREAM_FETCH_SIZE = "1000";
+    // LockOptions.SKIP_LOCKED as a lock timeout hint: FOR UPDATE SKIP LOCKED
+    String SKIP_LOCKED = "-2";
     Optional<Video> findByTitle(String title);
+
+    @Query("select new videos.repository.VideoVersion(v.id, v.updated) from tbl_video v where v.id = :id")
+    Optional<VideoVersion> findVersionById(UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update tbl_video v set v.completed = true, v.updated = :now, v.version = v.version + 1, " +
+            "v.leaseOwner = null, v.leaseExpires = null " +
+            "where v.id = :id and v.version = :version and (v.completed = false or v.completed is null)")
+    int markCompleted(UUID id, long version, Timestamp now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update tbl_video v set v.completed = true, v.updated = :now, v.version = v.version + 1, " +
+            "v.leaseOwner = null, v.leaseExpires = null " +
+            "where v.id in :ids and (v.completed = false or v.completed is null)")
+    int markCompletedByIds(Collection<UUID> ids, Timestamp now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from tbl_video v where v.id = :id")
+    Optional<Video> findByIdForUpdate(UUID id);
+
+    /**
+     * Incomplete videos without a live lease, in idx_video_completed_lease order. Rows another claim has
+     * locked are skipped rather than waited for, so concurrent workers get disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query("select v from tbl_video v where (v.completed = false or v.completed is null) " +
+            "and (v.leaseExpires is null or v.leaseExpires < :now)")
+    List<Video> findClaimable(Timestamp now, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v.id from tbl_video v where v.id in :ids and v.leaseOwner = :owner and v.leaseExpires >= :now " +
+            "and (v.completed = false or v.completed is null)")
+    List<UUID> findLeasedForUpdate(Collection<UUID> ids, String owner, Timestamp now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update tbl_video v set v.leaseOwner = :owner, v.leaseExpires = :expires where v.id in :ids")
+    int lease(Collection<UUID> ids, String owner, Timestamp expires);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from tbl_video v where v.id in :ids and (v.completed = false or v.completed is null)")
+    List<Video> findIncompleteForUpdate(Collection<UUID> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from tbl_video v where v.userId = :userId and (v.completed = false or v.completed is null)")
+    List<Video> findIncompleteByUserIdForUpdate(UUID userId);
+
+    @Query("select v from tbl_video v order by v.created desc, v.id desc")
+    List<Video> findFirstKeysetPage(Limit limit);
+
+    @Query("select v from tbl_video v where v.created < :created or (v.created = :created and v.id < :id) " +
+            "order by v.created desc, v.id desc")
+    List<Video> findNextKeysetPage(Timestamp created, UUID id, Limit limit);
+
+    @Query("select v from tbl_video v where v.userId = :userId and (:completed is null or v.completed = :completed) " +
+            "order by v.created desc, v.id desc")
+    List<Video> findFirstUserKeysetPage(UUID userId, Boolean completed, Limit limit);
+
+    @Query("select v from tbl_video v where v.userId = :userId and (:completed is null or v.completed = :completed) " +
+            "and (v.created < :created or (v.created = :created and v.id < :id)) " +
+            "order by v.created desc, v.id desc")
+    List<Video> findNextUserKeysetPage(UUID userId, Boolean completed, Timestamp created, UUID id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select v from tbl_video v where (:userId is null or v.userId = :userId) " +
+            "and (:completed is null or v.completed = :completed)")
+    Stream<Video> streamAll(UUID userId, Boolean completed);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    // oldest first: the search index numbers documents in stream order and returns the highest numbers first
+    @Query("select new videos.repository.VideoText(v.id, v.title, v.description) from tbl_video v order by v.created, v.id")
+    Stream<VideoText> streamText();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select v.id from tbl_video v")
+    Stream<UUID> streamIds();
 }
@@ -0,0 +1,56 @@
+package videos.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Sorted, growable list of document numbers. Documents are numbered in insertion order, so adds are
+ * almost always appends.
+ */
+final class Postings {
+
+    private int[] docs = new int[4];
+    private int size;
+
+    boolean add(int doc) {
+        if (size > 0 && docs[size - 1] >= doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0)
+                return false;
+            insert(-at - 1, doc);
+            return true;
+        }
+        insert(size, doc);
+        return true;
+    }
+
+    boolean remove(int doc) {
+        int at = Arrays.binarySearch(docs, 0, size, doc);
+        if (at < 0)
+            return false;
+        System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+        size--;
+        return true;
+    }
+
+    void addTo(BitSet bits) {
+        for (int i = 0; i < size; i++)
+            bits.set(docs[i]);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(int at, int doc) {
+        if (size == docs.length)
+            docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+        System.arraycopy(docs, at, docs, at + 1, size - at);
+        docs[at] = doc;
+        size++;
+    }
+}
@@ -0,0 +1,382 @@
+package videos.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import videos.domain.VideoChange;
+import videos.dto.VideoDTO;
+import videos.event.VideoChangedEvent;
+import videos.exception.VideoServiceException;
+import videos.repository.VideoChangeRepository;
+import videos.repository.VideoText;
+import videos.repository.VideosRepository;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over video title and description. Terms are kept in a sorted dictionary so
+ * a query token matches every term it prefixes; each term points to a compact list of document numbers.
+ * Like {@link videos.service.VideoExistenceFilter}, the index holds every change up to a feed position: it
+ * is built from one snapshot of tbl_video together with the feed position that snapshot reflects, then
+ * tails the change feed on the primary every {@code sync-interval}, so changes made on other instances
+ * arrive too. Committed {@link VideoChangedEvent}s of this instance are applied at once as well; the feed
+ * replays them later in order, which leaves the same result. The index is rebuilt every
+ * {@code rebuild-interval}, and sooner once deleted videos, which leave unused document numbers behind,
+ * make up {@code compact-ratio} of it.
+ */
+@Slf4j
+@Component
+public class VideoSearchIndex {
+
+    private static final int SYNC_BATCH_SIZE = 1000;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    // rough per-object sizes on a 64-bit JVM with compressed oops, used for the footprint gauge
+    private static final long TERM_OVERHEAD_BYTES = 120;
+    private static final long POSTING_BYTES = 12;
+    private static final long DOCUMENT_OVERHEAD_BYTES = 112;
+
+    private final VideosRepository repository;
+    private final VideoChangeRepository changeRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryReads;
+    private final Timer queryTimer;
+    private final boolean enabled;
+    private final double compactRatio;
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // held while the feed is applied; guards position, so a sync and the catch-up of a build never both move it
+    private final ReentrantLock feed = new ReentrantLock();
+    private Index index = new Index();
+    private long position;
+    private volatile boolean ready;
+
+    public VideoSearchIndex(VideosRepository repository,
+                            VideoChangeRepository changeRepository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry registry,
+                            @Value("${videos.search.enabled:true}") boolean enabled,
+                            @Value("${videos.search.compact-ratio:0.2}") double compactRatio) {
+        this.repository = repository;
+        this.changeRepository = changeRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // the snapshot may come from a lagging replica; the feed after its position is read where it is complete
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.compactRatio = compactRatio;
+        this.queryTimer = Timer.builder("video.search.query")
+                .description("Search index query latency, excluding loading the matched videos")
+                .register(registry);
+        Gauge.builder("video.search.index.bytes", this, VideoSearchIndex::estimatedBytes)
+                .description("Estimated heap used by the search index")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("video.search.index.documents", this, s -> s.read(i -> i.docs.size()))
+                .register(registry);
+        Gauge.builder("video.search.index.terms", this, s -> s.read(i -> i.terms.size()))
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled)
+            Thread.ofVirtual().name("search-index-build").start(this::rebuild);
+    }
+
+    @Scheduled(initialDelayString = "${videos.search.rebuild-interval:PT1H}",
+            fixedDelayString = "${videos.search.rebuild-interval:PT1H}")
+    public void rebuildPeriodically() {
+        if (enabled && ready)
+            rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${videos.search.compact-interval:PT10M}",
+            fixedDelayString = "${videos.search.compact-interval:PT10M}")
+    public void compactIfNeeded() {
+        if (enabled && ready && read(current -> current.removed > current.ids.size() * compactRatio))
+            rebuild();
+    }
+
+    public void rebuild() {
+        if (!building.compareAndSet(false, true)) {
+            log.info("search index build already running, skipped");
+            return;
+        }
+        try {
+            build();
+        } finally {
+            building.set(false);
+        }
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        Index fresh = new Index();
+        long built;
+        try {
+            // one snapshot for both reads; feed positions follow commit order, so the rows hold exactly the
+            // changes up to that position
+            long snapshot = readOnlyTransaction.execute(status -> {
+                long seq = changeRepository.findLastSeq();
+                try (Stream<VideoText> rows = repository.streamText()) {
+                    rows.forEach(row -> fresh.put(row.id(), row.title(), row.description()));
+                }
+                return seq;
+            });
+            // most of the catch-up runs before the feed lock is taken, so syncs of the live index go on
+            built = tail(snapshot, change -> apply(fresh, change));
+        } catch (RuntimeException e) {
+            log.error("search index build failed: {}", e.toString());
+            return;
+        }
+
+        feed.lock();
+        try {
+            position = tail(built, change -> apply(fresh, change));
+            write(current -> index = fresh);
+            ready = true;
+        } catch (RuntimeException e) {
+            log.error("search index build failed: {}", e.toString());
+            return;
+        } finally {
+            feed.unlock();
+        }
+        log.info("search index built: [documents: {}, terms: {}, estimatedBytes: {}, millis: {}]",
+                fresh.docs.size(), fresh.terms.size(), estimatedBytes(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies changes committed on any instance, read from the change feed on the primary.
+     */
+    @Scheduled(initialDelayString = "${videos.search.sync-interval:PT1S}",
+            fixedDelayString = "${videos.search.sync-interval:PT1S}")
+    public void sync() {
+        // a build in progress catches up on its own before it replaces the index
+        if (!enabled || !ready || !feed.tryLock())
+            return;
+        try {
+            position = tail(position, change -> write(current -> apply(current, change)));
+        } catch (RuntimeException e) {
+            log.warn("search index sync failed: {}", e.toString());
+        } finally {
+            feed.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoChanged(VideoChangedEvent event) {
+        if (!enabled)
+            return;
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                UUID id = event.id();
+                String title = event.after().getTitle();
+                String description = event.after().getDescription();
+                write(current -> current.put(id, title, description));
+            }
+            case DELETED -> write(current -> current.remove(event.id()));
+            case COMPLETED -> {
+                // completion does not change the indexed text
+            }
+        }
+    }
+
+    private long tail(long since, Consumer<VideoChange> apply) {
+        long last = since;
+        List<VideoChange> batch;
+        do {
+            long after = last;
+            batch = primaryReads.execute(status -> changeRepository.findAfter(after, Limit.of(SYNC_BATCH_SIZE)));
+            for (VideoChange change : batch) {
+                apply.accept(change);
+                last = change.getSeq();
+            }
+        } while (batch.size() == SYNC_BATCH_SIZE);
+        return last;
+    }
+
+    private void apply(Index target, VideoChange change) {
+        switch (change.getType()) {
+            case CREATED, UPDATED -> {
+                VideoDTO video = fromJson(change.getPayload());
+                target.put(change.getVideoId(), video.getTitle(), video.getDescription());
+            }
+            case DELETED -> target.remove(change.getVideoId());
+            case COMPLETED -> {
+                // completion does not change the indexed text
+            }
+        }
+    }
+
+    private VideoDTO fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, VideoDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt change feed payload", e);
+        }
+    }
+
+    /**
+     * Ids of the videos matching every token of the query, newest first. All but single-character
+     * tokens match as prefixes.
+     */
+    public List<UUID> search(String query, int limit) {
+        if (!enabled || !ready)
+            throw new VideoServiceException("search", HttpStatus.SERVICE_UNAVAILABLE,
+                    enabled ? "Search index is being built" : "Search is disabled");
+        List<String> tokens = List.copyOf(tokenize(query));
+        if (tokens.isEmpty())
+            return List.of();
+        return queryTimer.record(() -> read(current -> current.search(tokens, limit)));
+    }
+
+    public long estimatedBytes() {
+        return read(current -> current.terms.size() * TERM_OVERHEAD_BYTES
+                + current.termChars
+                + current.postingEntries * POSTING_BYTES
+                + current.docs.size() * DOCUMENT_OVERHEAD_BYTES);
+    }
+
+    private void write(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(Function<Index, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> tokenize(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null)
+                continue;
+            for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty())
+                    tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(int number, String[] terms) {
+    }
+
+    private static final class Index {
+
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<UUID, Document> docs = new HashMap<>();
+        private final List<UUID> ids = new ArrayList<>();
+        private long postingEntries;
+        private long termChars;
+        private int removed;
+
+        void put(UUID id, String title, String description) {
+            Set<String> tokens = tokenize(title, description);
+            Document existing = docs.get(id);
+            int number;
+            if (existing != null) {
+                number = existing.number();
+                removeTerms(number, existing.terms());
+            } else {
+                number = ids.size();
+                ids.add(id);
+            }
+            for (String token : tokens) {
+                Postings postings = terms.get(token);
+                if (postings == null) {
+                    postings = new Postings();
+                    terms.put(token, postings);
+                    termChars += token.length();
+                }
+                if (postings.add(number))
+                    postingEntries++;
+            }
+            docs.put(id, new Document(number, tokens.toArray(String[]::new)));
+        }
+
+        void remove(UUID id) {
+            Document removed = docs.remove(id);
+            if (removed == null)
+                return;
+            removeTerms(removed.number(), removed.terms());
+            ids.set(removed.number(), null);
+            this.removed++;
+        }
+
+        List<UUID> search(List<String> tokens, int limit) {
+            BitSet result = null;
+            for (String token : tokens) {
+                BitSet matches = new BitSet(ids.size());
+                if (token.length() >= MIN_PREFIX_LENGTH) {
+                    terms.subMap(token, true, token + Character.MAX_VALUE, false)
+                            .values()
+                            .forEach(postings -> postings.addTo(matches));
+                } else {
+                    Postings postings = terms.get(token);
+                    if (postings != null)
+                        postings.addTo(matches);
+                }
+                if (result == null)
+                    result = matches;
+                else
+                    result.and(matches);
+                if (result.isEmpty())
+                    return List.of();
+            }
+
+            List<UUID> found = new ArrayList<>(Math.min(limit, result.cardinality()));
+            for (int doc = result.previousSetBit(ids.size() - 1); doc >= 0 && found.size() < limit; doc = result.previousSetBit(doc - 1))
+                found.add(ids.get(doc));
+            return found;
+        }
+
+        private void removeTerms(int number, String[] docTerms) {
+            for (String term : docTerms) {
+                Postings postings = terms.get(term);
+                if (postings != null && postings.remove(number)) {
+                    postingEntries--;
+                    if (postings.isEmpty()) {
+                        terms.remove(term);
+                        termChars -= term.length();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package videos.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Total number of videos, refreshed in the background so list requests never pay for {@code COUNT(*)}.
+ * The value is InnoDB's row estimate from table statistics, which costs a metadata lookup instead of a
+ * scan of the table and can be off by some percent.
+ */
+@Slf4j
+@Component
+public class ApproximateVideoCount {
+
+    private static final long UNKNOWN = -1L;
+    private static final String ESTIMATE = "select table_rows from information_schema.tables " +
+            "where table_schema = database() and table_name = 'tbl_video'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLong count = new AtomicLong(UNKNOWN);
+
+    public ApproximateVideoCount(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(initialDelayString = "PT0S", fixedDelayString = "${videos.count.refresh-interval:PT30S}")
+    public void refresh() {
+        try {
+            Long estimate = jdbcTemplate.queryForObject(ESTIMATE, Long.class);
+            count.set(estimate == null ? UNKNOWN : estimate);
+            log.debug("approximate video count refreshed: {}", count.get());
+        } catch (RuntimeException e) {
+            log.warn("approximate video count refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public Long get() {
+        long current = count.get();
+        return current == UNKNOWN ? null : current;
+    }
+}
@@ -0,0 +1,181 @@
+package videos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import videos.domain.VideoChange;
+import videos.dto.ChangeFeedDTO;
+import videos.dto.VideoChangeDTO;
+import videos.dto.VideoDTO;
+import videos.event.VideoChangedEvent;
+import videos.repository.VideoChangeRepository;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves the change outbox in sequence order, by long-polling or as Server-Sent Events, and prunes it by
+ * age. {@link ChangeSequencer} numbers rows in commit order, so everything after a reader's position is
+ * simply the rows with a higher seq; rows of transactions still in flight have no seq yet.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    private static final int PRUNE_BATCH_SIZE = 10_000;
+
+    private final VideoChangeRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+    private final Duration pollInterval;
+    private final Duration maxWait;
+    private final Duration retention;
+    private final Duration sseTimeout;
+
+    private final AtomicLong commits = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition committed = lock.newCondition();
+
+    public ChangeFeedService(VideoChangeRepository repository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${videos.changes.poll-interval:PT1S}") Duration pollInterval,
+                             @Value("${videos.changes.max-wait:PT60S}") Duration maxWait,
+                             @Value("${videos.changes.retention:P7D}") Duration retention,
+                             @Value("${videos.changes.sse-timeout:PT30M}") Duration sseTimeout) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.pollInterval = pollInterval;
+        this.maxWait = maxWait;
+        this.retention = retention;
+        this.sseTimeout = sseTimeout;
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code since}. When there are none, waits up to {@code wait} for a
+     * commit; commits on other instances are picked up by re-reading every {@code poll-interval}.
+     */
+    public ChangeFeedDTO poll(long since, int limit, Duration wait) {
+        long deadline = System.nanoTime() + Math.min(wait.toNanos(), maxWait.toNanos());
+        while (true) {
+            long observed = commits.get();
+            List<VideoChangeDTO> changes = read(since, limit);
+            long remaining = deadline - System.nanoTime();
+            if (!changes.isEmpty() || remaining <= 0)
+                return new ChangeFeedDTO(changes, changes.isEmpty() ? since : changes.getLast().getSeq());
+            awaitCommit(observed, Math.min(remaining, pollInterval.toNanos()));
+        }
+    }
+
+    public SseEmitter stream(long since, int limit) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+
+        Thread.ofVirtual().name("change-feed-sse").start(() -> {
+            long position = since;
+            try {
+                while (open.get()) {
+                    ChangeFeedDTO batch = poll(position, limit, maxWait);
+                    for (VideoChangeDTO change : batch.getChanges())
+                        emitter.send(SseEmitter.event().id(String.valueOf(change.getSeq())).name(change.getType()).data(change));
+                    if (batch.getChanges().isEmpty())
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    position = batch.getNextSince();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("change feed stream closed: {}", e.toString());
+            } catch (RuntimeException e) {
+                log.error("change feed stream failed: {}", e.toString());
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onCommit(VideoChangedEvent event) {
+        commits.incrementAndGet();
+        lock.lock();
+        try {
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "${videos.changes.prune-interval:PT10M}")
+    public void prune() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+        try {
+            long pruned = 0;
+            int deleted;
+            do {
+                deleted = transaction.execute(status -> repository.deleteOlderThan(cutoff, PRUNE_BATCH_SIZE));
+                pruned += deleted;
+            } while (deleted == PRUNE_BATCH_SIZE);
+            log.info("pruned {} change feed entries older than {}", pruned, cutoff);
+        } catch (RuntimeException e) {
+            log.warn("change feed pruning failed: {}", e.getMessage());
+        }
+    }
+
+    private List<VideoChangeDTO> read(long since, int limit) {
+        List<VideoChange> rows = readOnlyTransaction.execute(status -> repository.findAfter(since, Limit.of(limit)));
+        return rows.stream().map(this::toDTO).toList();
+    }
+
+    private void awaitCommit(long observed, long nanos) {
+        lock.lock();
+        try {
+            while (commits.get() == observed && nanos > 0)
+                nanos = committed.awaitNanos(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for changes", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private VideoChangeDTO toDTO(VideoChange row) {
+        return VideoChangeDTO.builder()
+                .seq(row.getSeq())
+                .type(row.getType().name())
+                .videoId(row.getVideoId())
+                .created(row.getCreated().toLocalDateTime())
+                .video(fromJson(row.getPayload()))
+                .build();
+    }
+
+    private VideoDTO fromJson(String payload) {
+        if (payload == null)
+            return null;
+        try {
+            return objectMapper.readValue(payload, VideoDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt change feed payload", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package videos.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Numbers change feed rows in commit order. Rows are inserted without a sequence number; just before their
+ * transaction commits, it locks the single row of tbl_video_change_seq, numbers its own rows from there and
+ * commits while still holding that lock. A row with seq N is therefore visible before any row above N, and a
+ * rollback also rolls back the counter, so the feed never has a gap that readers must wait out or skip.
+ * <p>
+ * The price is that committing writers queue on the counter row for the last few statements of their
+ * transaction.
+ */
+@Component
+public class ChangeSequencer {
+
+    private static final String LOCK = "select last_seq from tbl_video_change_seq where id = 1 for update";
+    private static final String ASSIGN = "update tbl_video_change set seq = ? where id = ?";
+    private static final String ADVANCE = "update tbl_video_change_seq set last_seq = ? where id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public ChangeSequencer(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Numbers the outbox row {@code id} when the current transaction commits.
+     */
+    public void register(long id) {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.ids.add(id);
+    }
+
+    /**
+     * The highest feed position the current transaction assigned, or -1 if it recorded no change. Only
+     * meaningful from {@code afterCommit} callbacks, which all run before the positions are unbound.
+     */
+    public long committedSeq() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        return pending == null ? -1 : pending.lastAssigned;
+    }
+
+    private final class Pending implements TransactionSynchronization {
+
+        private final List<Long> ids = new ArrayList<>();
+        private long lastAssigned = -1;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // flush the transaction's own row locks first, so it does not wait on another writer while
+            // holding the counter that writer is queued on
+            entityManager.flush();
+            long last = Objects.requireNonNull(jdbcTemplate.queryForObject(LOCK, Long.class));
+            List<Object[]> args = new ArrayList<>(ids.size());
+            for (Long id : ids)
+                args.add(new Object[]{++last, id});
+            jdbcTemplate.batchUpdate(ASSIGN, args);
+            jdbcTemplate.update(ADVANCE, last);
+            lastAssigned = last;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeSequencer.this);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package videos.service;
+
+import videos.dto.VideoDTO;
+
+/**
+ * A video written by a bulk save, and whether the write inserted it rather than updating an existing row.
+ */
+public record SavedVideo(VideoDTO video, boolean created) {
+}
@@ -0,0 +1,223 @@
+package videos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import videos.domain.ArchivedVideo;
+import videos.dto.ArchivePurgeResultDTO;
+import videos.dto.VideoDTO;
+import videos.event.VideoChangedEvent;
+import videos.exception.VideoServiceException;
+import videos.mapper.VideoMapper;
+import videos.repository.ArchivedVideoRepository;
+import videos.repository.VideoVersion;
+import videos.util.CommonUtil;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps tbl_video to the working set by moving completed videos older than {@code videos.archive.min-age}
+ * to tbl_video_archive. Each chunk is its own short transaction that claims rows with
+ * {@code FOR UPDATE SKIP LOCKED}, copies and deletes them, so a run can stop at any point, resumes where the
+ * age predicate left off, and several instances can run it at once without blocking writers or each other.
+ * Archived videos stay readable by id and are removed for good by {@link #purge}.
+ */
+@Slf4j
+@Service
+public class VideoArchiveService {
+
+    private static final String COLUMNS = "id, title, description, user_id, user_name, completed, created, updated, version";
+    private static final String SELECT_MOVABLE = "select id from tbl_video where completed = 1 and created < ? " +
+            "order by created limit ? for update skip locked";
+    private static final String COPY = "insert into tbl_video_archive (" + COLUMNS + ", archived) " +
+            "select " + COLUMNS + ", ? from tbl_video where id in ";
+    private static final String DELETE = "delete from tbl_video where id in ";
+    private static final String DELETE_ARCHIVED = "delete from tbl_video_archive where id in ";
+
+    private static final RowMapper<VideoDTO> ARCHIVED_ROW = (rs, rowNum) -> VideoDTO.builder()
+            .id(CommonUtil.toUuid(rs.getBytes("id")))
+            .title(rs.getString("title"))
+            .description(rs.getString("description"))
+            .userId(CommonUtil.toUuid(rs.getBytes("user_id")))
+            .userName(rs.getString("user_name"))
+            .completed(rs.getObject("completed", Boolean.class))
+            .created(toLocalDateTime(rs.getTimestamp("created")))
+            .updated(toLocalDateTime(rs.getTimestamp("updated")))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final ArchivedVideoRepository repository;
+    private final VideoMapper mapper;
+    private final VideoCache videoCache;
+    private final ApplicationEventPublisher events;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate primaryReads;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration maxRunTime;
+    private final Counter moved;
+    private final Counter purged;
+
+    public VideoArchiveService(ArchivedVideoRepository repository,
+                               VideoMapper mapper,
+                               VideoCache videoCache,
+                               ApplicationEventPublisher events,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry registry,
+                               @Value("${videos.archive.enabled:true}") boolean enabled,
+                               @Value("${videos.archive.min-age:P90D}") Duration minAge,
+                               @Value("${videos.archive.chunk-size:500}") int chunkSize,
+                               @Value("${videos.archive.pause:PT0.2S}") Duration pause,
+                               @Value("${videos.archive.max-run-time:PT30M}") Duration maxRunTime) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.videoCache = videoCache;
+        this.events = events;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        // under repeatable read the claiming range scan would also gap-lock the index range it passed over
+        this.chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        // archived rows were moved on the primary moments ago; a lagging replica would not have them yet
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.maxRunTime = maxRunTime;
+        this.moved = Counter.builder("video.archive.moved")
+                .description("Videos moved from tbl_video to tbl_video_archive")
+                .register(registry);
+        this.purged = Counter.builder("video.archive.purged")
+                .description("Archived videos deleted by purge")
+                .register(registry);
+    }
+
+    @Scheduled(cron = "${videos.archive.cron:0 0 4 * * *}")
+    public void archive() {
+        if (!enabled)
+            return;
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(minAge));
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        long total = 0;
+        int chunk;
+        do {
+            try {
+                chunk = Objects.requireNonNull(chunkTransaction.execute(status -> moveChunk(cutoff)));
+            } catch (RuntimeException e) {
+                log.error("video archive chunk failed, resuming next run: {}", e.getMessage());
+                break;
+            }
+            total += chunk;
+            moved.increment(chunk);
+            if (chunk == chunkSize)
+                LockSupport.parkNanos(pause.toNanos());
+        } while (chunk == chunkSize && System.nanoTime() < deadline);
+        log.info("video archive run finished: [moved: {}, cutoff: {}]", total, cutoff);
+    }
+
+    /**
+     * Deletes archived videos of the given user and/or archived before the given time, one chunk per
+     * transaction, until nothing matches or {@code videos.archive.max-run-time} is used up.
+     */
+    public ArchivePurgeResultDTO purge(UUID userId, Instant archivedBefore) {
+        if (userId == null && archivedBefore == null)
+            throw new VideoServiceException("filter", HttpStatus.BAD_REQUEST, "userId or archivedBefore is required");
+        StringBuilder where = new StringBuilder(" where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (userId != null) {
+            where.append(" and user_id = ?");
+            args.add(CommonUtil.toBytes(userId));
+        }
+        if (archivedBefore != null) {
+            where.append(" and archived < ?");
+            args.add(Timestamp.from(archivedBefore));
+        }
+        args.add(chunkSize);
+        String select = "select " + COLUMNS + " from tbl_video_archive" + where + " order by archived limit ? for update skip locked";
+
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        long total = 0;
+        List<VideoDTO> chunk;
+        do {
+            chunk = Objects.requireNonNull(chunkTransaction.execute(status -> purgeChunk(select, args.toArray())));
+            chunk.forEach(video -> videoCache.evict(video.getId(), video.getTitle()));
+            total += chunk.size();
+            purged.increment(chunk.size());
+            if (chunk.size() == chunkSize)
+                LockSupport.parkNanos(pause.toNanos());
+        } while (chunk.size() == chunkSize && System.nanoTime() < deadline);
+        log.info("purged archived videos: [count: {}, userId: {}, archivedBefore: {}]", total, userId, archivedBefore);
+        return new ArchivePurgeResultDTO(total, chunk.size() == chunkSize);
+    }
+
+    public Optional<VideoDTO> find(UUID id) {
+        return primaryReads.execute(status -> repository.findById(id).map(mapper::toDTO));
+    }
+
+    public Map<UUID, VideoDTO> findAll(Collection<UUID> ids) {
+        if (ids.isEmpty())
+            return Map.of();
+        return primaryReads.execute(status -> repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ArchivedVideo::getId, mapper::toDTO)));
+    }
+
+    public Optional<VideoVersion> findVersion(UUID id) {
+        return primaryReads.execute(status -> repository.findById(id)
+                .map(video -> new VideoVersion(video.getId(), video.getUpdated())));
+    }
+
+    public boolean exists(UUID id) {
+        return Boolean.TRUE.equals(primaryReads.execute(status -> repository.existsById(id)));
+    }
+
+    private int moveChunk(Timestamp cutoff) {
+        List<byte[]> ids = jdbcTemplate.queryForList(SELECT_MOVABLE, byte[].class, cutoff, chunkSize);
+        if (ids.isEmpty())
+            return 0;
+        String in = in(ids.size());
+        List<Object> copyArgs = new ArrayList<>(ids.size() + 1);
+        copyArgs.add(Timestamp.from(Instant.now()));
+        copyArgs.addAll(ids);
+        jdbcTemplate.update(COPY + in, copyArgs.toArray());
+        return jdbcTemplate.update(DELETE + in, ids.toArray());
+    }
+
+    private List<VideoDTO> purgeChunk(String select, Object[] args) {
+        List<VideoDTO> rows = jdbcTemplate.query(select, ARCHIVED_ROW, args);
+        if (rows.isEmpty())
+            return rows;
+        jdbcTemplate.update(DELETE_ARCHIVED + in(rows.size()),
+                rows.stream().map(video -> CommonUtil.toBytes(video.getId())).toArray());
+        // outbox, change feed and stats see a purge like any other delete
+        rows.forEach(video -> events.publishEvent(VideoChangedEvent.deleted(video)));
+        return rows;
+    }
+
+    private static String in(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,140 @@
+package videos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import videos.domain.Video;
+import videos.dto.VideoDTO;
+import videos.mapper.VideoMapper;
+import videos.repository.VideosRepository;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces concurrent single-id lookups into one {@code IN} query, DataLoader style. The first caller
+ * to queue an id waits {@code window}, then loads everything queued meanwhile on behalf of all waiters;
+ * a full batch is loaded at once. Callers asking for an id that is already queued share that lookup; once
+ * its query has been sent, a caller for the same id queues a new one. Joining a running query would hand
+ * that caller a row read before an eviction it has already seen, which {@link VideoCache} would then accept.
+ * Lookups run in a read-write transaction so they stay on the primary: their results
+ * populate the video cache, which must not be filled from a lagging replica.
+ */
+@Slf4j
+@Component
+public class VideoBatchLoader {
+
+    private final VideosRepository repository;
+    private final VideoMapper mapper;
+    private final TransactionTemplate primaryReads;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSize;
+    private final Counter deduplicated;
+
+    private final Map<UUID, CompletableFuture<Optional<VideoDTO>>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private List<UUID> queued = new ArrayList<>();
+
+    public VideoBatchLoader(VideosRepository repository,
+                            VideoMapper mapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry registry,
+                            @Value("${videos.batch.window:PT0.002S}") Duration window,
+                            @Value("${videos.batch.max-size:100}") int maxBatchSize) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.batchSize = DistributionSummary.builder("video.batch.size")
+                .description("Ids resolved per coalesced findById query")
+                .register(registry);
+        this.deduplicated = Counter.builder("video.batch.deduplicated")
+                .description("findById calls served by a lookup already queued for the same id")
+                .register(registry);
+    }
+
+    public Optional<VideoDTO> load(UUID id) {
+        CompletableFuture<Optional<VideoDTO>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<VideoDTO>> existing = inFlight.putIfAbsent(id, future);
+        if (existing != null) {
+            deduplicated.increment();
+            return join(existing);
+        }
+
+        List<UUID> batch = null;
+        boolean leader;
+        synchronized (lock) {
+            queued.add(id);
+            leader = queued.size() == 1;
+            if (queued.size() >= maxBatchSize)
+                batch = takeQueued();
+        }
+        if (batch == null && leader) {
+            if (windowNanos > 0)
+                LockSupport.parkNanos(windowNanos);
+            synchronized (lock) {
+                batch = takeQueued();
+            }
+        }
+        if (batch != null && !batch.isEmpty())
+            dispatch(batch);
+        return join(future);
+    }
+
+    /**
+     * Loads the given ids with one query, bypassing the coalescing window.
+     */
+    public Map<UUID, VideoDTO> loadAll(Collection<UUID> ids) {
+        batchSize.record(ids.size());
+        return primaryReads.execute(status -> repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Video::getId, mapper::toDTO)));
+    }
+
+    private List<UUID> takeQueued() {
+        List<UUID> taken = queued;
+        queued = new ArrayList<>();
+        return taken;
+    }
+
+    private void dispatch(List<UUID> batch) {
+        log.debug("loading coalesced batch: [size: {}]", batch.size());
+        // unlisted before the query starts, so every waiter joined before it and read its cache fence first
+        Map<UUID, CompletableFuture<Optional<VideoDTO>>> waiting = new HashMap<>();
+        batch.forEach(id -> waiting.put(id, inFlight.remove(id)));
+        Map<UUID, VideoDTO> found;
+        try {
+            found = loadAll(batch);
+        } catch (Throwable e) {
+            // every waiter joins without a timeout, so the futures are completed whatever was thrown
+            waiting.values().forEach(future -> future.completeExceptionally(e));
+            if (e instanceof Error error)
+                throw error;
+            return;
+        }
+        waiting.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+    }
+
+    private static Optional<VideoDTO> join(CompletableFuture<Optional<VideoDTO>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            if (e.getCause() instanceof Error cause)
+                throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package videos.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import videos.dto.BulkItemResultDTO;
+import videos.dto.VideoDTO;
+import videos.exception.VideoServiceException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a JSON array or NDJSON sequence of videos (or the Smile/CBOR equivalent) from the request,
+ * validates and persists them in chunks of {@code videos.bulk.batch-size} and writes one result per item
+ * back in the same format. Only the current chunk is held in memory.
+ */
+@Slf4j
+@Service
+public class VideoBulkService {
+
+    private final VideoService service;
+    private final Map<Format, ObjectMapper> mappers = new EnumMap<>(Format.class);
+    private final Validator validator;
+    private final int chunkSize;
+
+    public VideoBulkService(VideoService service, ObjectMapper objectMapper, Validator validator,
+                            @Value("${videos.bulk.batch-size:100}") int chunkSize) {
+        this.service = service;
+        this.mappers.put(Format.JSON, objectMapper);
+        this.mappers.put(Format.NDJSON, objectMapper);
+        this.mappers.put(Format.SMILE, objectMapper.copyWith(new SmileFactory()));
+        this.mappers.put(Format.CBOR, objectMapper.copyWith(new CBORFactory()));
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        SMILE(new MediaType("application", "x-jackson-smile")),
+        CBOR(MediaType.APPLICATION_CBOR);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Format of(MediaType contentType) {
+            return Arrays.stream(values())
+                    .filter(format -> format.mediaType.isCompatibleWith(contentType))
+                    .findFirst()
+                    .orElseThrow(() -> new VideoServiceException("format", HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                            "Unsupported bulk payload format"));
+        }
+    }
+
+    public void ingest(InputStream in, OutputStream out, Format format) throws IOException {
+        ObjectMapper mapper = mappers.get(format);
+        try (MappingIterator<VideoDTO> items = mapper.readerFor(VideoDTO.class).readValues(in);
+             JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+
+            ResultWriter writer = new ResultWriter(mapper, generator, format == Format.NDJSON);
+            writer.start();
+
+            List<IndexedVideo> chunk = new ArrayList<>(chunkSize);
+            int index = 0;
+            int saved = 0;
+            try {
+                while (items.hasNextValue()) {
+                    VideoDTO video = items.nextValue();
+                    Set<ConstraintViolation<VideoDTO>> violations = validator.validate(video);
+                    if (!violations.isEmpty()) {
+                        writer.write(failure(index++, video, HttpStatus.BAD_REQUEST, violations.stream()
+                                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                                .collect(Collectors.joining("; "))));
+                        continue;
+                    }
+                    chunk.add(new IndexedVideo(index++, video));
+                    if (chunk.size() == chunkSize) {
+                        saved += persist(chunk, writer);
+                        chunk.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                log.error("bulk payload unreadable at item {}: {}", index, e.getOriginalMessage());
+                saved += persist(chunk, writer);
+                chunk.clear();
+                writer.write(failure(index, null, HttpStatus.BAD_REQUEST, "Malformed payload, remaining items skipped"));
+            }
+            saved += persist(chunk, writer);
+            writer.end();
+            log.info("bulk ingest finished: [items: {}, saved: {}]", index, saved);
+        }
+    }
+
+    private int persist(List<IndexedVideo> chunk, ResultWriter writer) throws IOException {
+        if (chunk.isEmpty())
+            return 0;
+        try {
+            List<SavedVideo> saved = service.saveAll(chunk.stream().map(IndexedVideo::video).toList());
+            for (int i = 0; i < chunk.size(); i++)
+                writer.write(success(chunk.get(i), saved.get(i)));
+            writer.flush();
+            return saved.size();
+        } catch (RuntimeException e) {
+            log.warn("bulk chunk of {} items failed, retrying item by item: {}", chunk.size(), e.getMessage());
+        }
+
+        int saved = 0;
+        for (IndexedVideo item : chunk) {
+            try {
+                writer.write(success(item, service.saveAll(List.of(item.video())).getFirst()));
+                saved++;
+            } catch (VideoServiceException e) {
+                writer.write(failure(item.index(), item.video(), e.getStatus(), e.getMessage()));
+            } catch (DataIntegrityViolationException e) {
+                writer.write(failure(item.index(), item.video(), HttpStatus.CONFLICT, "Video conflicts with an existing video"));
+            } catch (RuntimeException e) {
+                log.error("bulk item {} failed: {}", item.index(), e.toString());
+                writer.write(failure(item.index(), item.video(), HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected Video Service Error"));
+            }
+        }
+        writer.flush();
+        return saved;
+    }
+
+    private static BulkItemResultDTO success(IndexedVideo item, SavedVideo saved) {
+        HttpStatus status = saved.created() ? HttpStatus.CREATED : HttpStatus.OK;
+        return BulkItemResultDTO.builder().index(item.index()).id(saved.video().getId()).status(status.value()).build();
+    }
+
+    private static BulkItemResultDTO failure(int index, VideoDTO video, HttpStatus status, String error) {
+        return BulkItemResultDTO.builder()
+                .index(index)
+                .id(video == null ? null : video.getId())
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    private record IndexedVideo(int index, VideoDTO video) {
+    }
+
+    private final class ResultWriter {
+
+        private final JsonGenerator generator;
+        private final boolean ndjson;
+        private final ObjectWriter resultWriter;
+
+        private ResultWriter(ObjectMapper mapper, JsonGenerator generator, boolean ndjson) {
+            this.generator = generator;
+            this.ndjson = ndjson;
+            this.resultWriter = mapper.writerFor(BulkItemResultDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        void start() throws IOException {
+            generator.setRootValueSeparator(null);
+            if (!ndjson)
+                generator.writeStartArray();
+        }
+
+        void write(BulkItemResultDTO result) throws IOException {
+            resultWriter.writeValue(generator, result);
+            if (ndjson)
+                generator.writeRaw('\n');
+        }
+
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        void end() throws IOException {
+            if (!ndjson)
+                generator.writeEndArray();
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package videos.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import videos.dto.VideoDTO;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of the video lookups. Videos are cached by id; the title cache only maps a
+ * title to an id, so a stale title entry is detected on read and never serves another video's data.
+ * Size, TTL and stats come from {@code spring.cache.caffeine.spec}; {@code spring.cache.type: none}
+ * turns caching off.
+ * <p>
+ * A load that overlaps an eviction of the same id must not cache what it read: it may have read the row
+ * before a commit whose after-commit eviction has already run. Every eviction bumps a counter for the id's
+ * stripe (and one for titles) before removing the entry, and a load only caches its result if the counter
+ * it saw before reading is unchanged after the put.
+ */
+@Slf4j
+@Component
+public class VideoCache {
+
+    public static final String BY_ID = "videosById";
+    public static final String BY_TITLE = "videosByTitle";
+
+    private static final int STRIPES = 1024;
+
+    private final Cache byId;
+    private final Cache byTitle;
+    private final AtomicLongArray idEvictions = new AtomicLongArray(STRIPES);
+    private final AtomicLong titleEvictions = new AtomicLong();
+
+    public VideoCache(CacheManager cacheManager) {
+        this.byId = Objects.requireNonNullElseGet(cacheManager.getCache(BY_ID), () -> new NoOpCache(BY_ID));
+        this.byTitle = Objects.requireNonNullElseGet(cacheManager.getCache(BY_TITLE), () -> new NoOpCache(BY_TITLE));
+    }
+
+    public VideoDTO getById(UUID id, Supplier<VideoDTO> loader) {
+        VideoDTO cached = byId.get(id, VideoDTO.class);
+        if (cached != null)
+            return copy(cached);
+        long seen = idEvictions.get(stripe(id));
+        VideoDTO loaded = loader.get();
+        put(loaded, seen, -1);
+        return copy(loaded);
+    }
+
+    /**
+     * The cached video, or null; never loads.
+     */
+    public VideoDTO peek(UUID id) {
+        VideoDTO cached = byId.get(id, VideoDTO.class);
+        return cached == null ? null : copy(cached);
+    }
+
+    /**
+     * Cached videos for the given ids plus whatever {@code loader} finds for the misses, keyed by id. Ids
+     * that exist nowhere are absent from the result.
+     */
+    public Map<UUID, VideoDTO> getAllById(Collection<UUID> ids, Function<Collection<UUID>, Map<UUID, VideoDTO>> loader) {
+        Map<UUID, VideoDTO> found = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            VideoDTO cached = byId.get(id, VideoDTO.class);
+            if (cached != null)
+                found.put(id, copy(cached));
+            else
+                missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            Map<UUID, Long> seen = new HashMap<>();
+            missing.forEach(id -> seen.put(id, idEvictions.get(stripe(id))));
+            loader.apply(missing).forEach((id, loaded) -> {
+                put(loaded, seen.get(id), -1);
+                found.put(id, copy(loaded));
+            });
+        }
+        return found;
+    }
+
+    public VideoDTO getByTitle(String title, Supplier<VideoDTO> loader) {
+        UUID id = byTitle.get(titleKey(title), UUID.class);
+        if (id != null) {
+            VideoDTO cached = byId.get(id, VideoDTO.class);
+            if (cached != null && title.equalsIgnoreCase(cached.getTitle()))
+                return copy(cached);
+            byTitle.evict(titleKey(title));
+        }
+        // the id is only known after the load, so a title load is checked against every eviction
+        long seenTitles = titleEvictions.get();
+        VideoDTO loaded = loader.get();
+        put(loaded, loaded.getId() == null ? -1 : idEvictions.get(stripe(loaded.getId())), seenTitles);
+        return copy(loaded);
+    }
+
+    /**
+     * Drops the given id and titles now and again once the surrounding transaction commits, so a
+     * concurrent reader cannot re-populate the cache with the pre-commit row.
+     */
+    public void evict(UUID id, String... titles) {
+        evictNow(id, titles);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, titles);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        clearNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearNow();
+                }
+            });
+        }
+    }
+
+    /**
+     * Caches a loaded video unless an eviction ran since the loader saw {@code seenId} (and
+     * {@code seenTitles}, when not -1). The counters are checked again after the put: an eviction that
+     * bumped them in between may already have removed the entry before it was written, so it is removed
+     * here instead.
+     */
+    private void put(VideoDTO dto, long seenId, long seenTitles) {
+        if (dto.getId() == null || !unchanged(dto.getId(), seenId, seenTitles))
+            return;
+        byId.put(dto.getId(), copy(dto));
+        if (dto.getTitle() != null)
+            byTitle.put(titleKey(dto.getTitle()), dto.getId());
+        if (!unchanged(dto.getId(), seenId, seenTitles))
+            evictNow(dto.getId(), dto.getTitle());
+    }
+
+    private boolean unchanged(UUID id, long seenId, long seenTitles) {
+        return idEvictions.get(stripe(id)) == seenId && (seenTitles == -1 || titleEvictions.get() == seenTitles);
+    }
+
+    // counters first, so a load that checks them after its put cannot miss an eviction that ran before it
+    private void evictNow(UUID id, String... titles) {
+        if (id != null)
+            idEvictions.incrementAndGet(stripe(id));
+        titleEvictions.incrementAndGet();
+        if (id != null)
+            byId.evict(id);
+        for (String title : titles) {
+            if (title != null)
+                byTitle.evict(titleKey(title));
+        }
+        log.debug("evicted video cache entries: [id: {}]", id);
+    }
+
+    private void clearNow() {
+        for (int i = 0; i < STRIPES; i++)
+            idEvictions.incrementAndGet(i);
+        titleEvictions.incrementAndGet();
+        byId.clear();
+        byTitle.clear();
+    }
+
+    private static int stripe(UUID id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+
+    private static String titleKey(String title) {
+        return title.toLowerCase(Locale.ROOT);
+    }
+
+    private static VideoDTO copy(VideoDTO dto) {
+        return dto.toBuilder().build();
+    }
+}
@@ -0,0 +1,57 @@
+package videos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import videos.domain.VideoChange;
+import videos.dto.VideoDTO;
+import videos.event.VideoChangedEvent;
+import videos.repository.VideoChangeRepository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Appends every {@link VideoChangedEvent} to the change outbox inside the transaction that published it,
+ * so a change is recorded if and only if the mutation commits. The row gets its feed position from
+ * {@link ChangeSequencer} at commit.
+ */
+@Component
+public class VideoChangeOutbox {
+
+    private final VideoChangeRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ChangeSequencer sequencer;
+
+    public VideoChangeOutbox(VideoChangeRepository repository, ObjectMapper objectMapper, ChangeSequencer sequencer) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.sequencer = sequencer;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(VideoChangedEvent event) {
+        VideoDTO video = event.after() != null ? event.after() : event.before();
+        VideoChange change = repository.save(VideoChange.builder()
+                .videoId(event.id())
+                .type(event.type())
+                .payload(toJson(video))
+                .created(Timestamp.from(Instant.now()))
+                .build());
+        sequencer.register(change.getId());
+    }
+
+    private String toJson(VideoDTO video) {
+        if (video == null)
+            return null;
+        try {
+            return objectMapper.writeValueAsString(video);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize video " + video.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package videos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import videos.domain.Video;
+import videos.dto.ClaimRequestDTO;
+import videos.dto.ClaimResultDTO;
+import videos.dto.VideoDTO;
+import videos.exception.VideoServiceException;
+import videos.mapper.VideoMapper;
+import videos.repository.VideosRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Leases incomplete videos to processing workers. A claim locks up to {@code limit} unleased videos with
+ * {@code FOR UPDATE SKIP LOCKED} and stamps owner and expiry on them in the same transaction, so concurrent
+ * workers never get the same video. Workers renew before expiry; a lease that runs out makes its video
+ * claimable again, and completing a video clears its lease. Leases are not part of the video itself: they
+ * do not bump version or updated and are not recorded in the change feed.
+ */
+@Slf4j
+@Service
+public class VideoClaimService {
+
+    private final VideosRepository repository;
+    private final VideoMapper mapper;
+    private final Duration defaultLease;
+    private final Counter claimed;
+    private final Counter renewed;
+    private final Counter lost;
+
+    public VideoClaimService(VideosRepository repository,
+                             VideoMapper mapper,
+                             MeterRegistry registry,
+                             @Value("${videos.claims.lease-duration:PT5M}") Duration defaultLease) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.defaultLease = defaultLease;
+        this.claimed = Counter.builder("video.claims.claimed")
+                .description("Videos leased to workers")
+                .register(registry);
+        this.renewed = Counter.builder("video.claims.renewed")
+                .description("Leases extended by a renew")
+                .register(registry);
+        this.lost = Counter.builder("video.claims.lost")
+                .description("Renewed ids whose lease had expired or moved to another worker")
+                .register(registry);
+    }
+
+    // read committed: under repeatable read the claim scan would also gap-lock the index range it passed over
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public ClaimResultDTO claim(ClaimRequestDTO request) {
+        if (Objects.isNull(request.getLimit()))
+            throw new VideoServiceException("limit", HttpStatus.BAD_REQUEST, "limit is required");
+        Timestamp now = now();
+        Timestamp expires = expiry(now, request.getLeaseSeconds());
+
+        List<Video> videos = repository.findClaimable(now, Limit.of(request.getLimit()));
+        List<VideoDTO> leased = videos.stream().map(mapper::toDTO).toList();
+        if (!leased.isEmpty())
+            repository.lease(leased.stream().map(VideoDTO::getId).toList(), request.getWorker(), expires);
+        claimed.increment(leased.size());
+        log.debug("claimed videos: [worker: {}, requested: {}, leased: {}]", request.getWorker(), request.getLimit(), leased.size());
+
+        return ClaimResultDTO.builder()
+                .worker(request.getWorker())
+                .leaseExpires(expires.toInstant())
+                .videos(leased)
+                .build();
+    }
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public ClaimResultDTO renew(ClaimRequestDTO request) {
+        if (Objects.isNull(request.getIds()))
+            throw new VideoServiceException("ids", HttpStatus.BAD_REQUEST, "ids are required");
+        Timestamp now = now();
+        Timestamp expires = expiry(now, request.getLeaseSeconds());
+
+        List<UUID> held = repository.findLeasedForUpdate(request.getIds(), request.getWorker(), now);
+        if (!held.isEmpty())
+            repository.lease(held, request.getWorker(), expires);
+        renewed.increment(held.size());
+        lost.increment(request.getIds().size() - held.size());
+        log.debug("renewed leases: [worker: {}, requested: {}, renewed: {}]", request.getWorker(), request.getIds().size(), held.size());
+
+        return ClaimResultDTO.builder()
+                .worker(request.getWorker())
+                .leaseExpires(expires.toInstant())
+                .renewed(held)
+                .build();
+    }
+
+    private Timestamp expiry(Timestamp now, Integer leaseSeconds) {
+        Duration lease = Objects.isNull(leaseSeconds) ? defaultLease : Duration.ofSeconds(leaseSeconds);
+        return Timestamp.from(now.toInstant().plus(lease));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+    }
+}
@@ -0,0 +1,249 @@
+package videos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import videos.domain.VideoChange;
+import videos.event.VideoChangedEvent;
+import videos.exception.VideoServiceException;
+import videos.repository.ArchivedVideoRepository;
+import videos.repository.VideoChangeRepository;
+import videos.repository.VideosRepository;
+import videos.util.BloomFilter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * A Bloom filter over every video id, so lookups for ids that were never stored can be answered with 404
+ * without a database round trip. The filter holds every video committed up to a feed position: the snapshot
+ * it was built from plus the change feed, tailed on the primary every {@code sync-interval}. {@code horizon}
+ * is when the last such tail started, so every video committed before it is in the filter.
+ * <p>
+ * A negative answer is only trusted for a time-ordered id whose timestamp is more than {@code trust-margin}
+ * before that horizon: such a video was committed before the horizon if at all, because ids are stamped
+ * when the video is created and {@code trust-margin} covers the time to commit plus clock skew between
+ * instances. Other ids, and titles, whose creation time is unknown, are always looked up.
+ * <p>
+ * Deleted ids cannot be removed from a Bloom filter and only cost a normal lookup until the next periodic
+ * rebuild drops them.
+ */
+@Slf4j
+@Component
+public class VideoExistenceFilter {
+
+    private static final long MIN_EXPECTED_INSERTIONS = 100_000;
+    private static final int SYNC_BATCH_SIZE = 1000;
+
+    private final VideosRepository repository;
+    private final VideoChangeRepository changeRepository;
+    private final ArchivedVideoRepository archiveRepository;
+    private final ApproximateVideoCount approximateCount;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryReads;
+    private final boolean enabled;
+    private final double fpp;
+    private final long trustMarginMillis;
+
+    private final Counter negative;
+    private final Counter positive;
+    private final Counter falsePositive;
+
+    private volatile Filters current;
+    private volatile Filters building;
+    private volatile long position;
+    private volatile long horizon;
+
+    public VideoExistenceFilter(VideosRepository repository,
+                                VideoChangeRepository changeRepository,
+                                ArchivedVideoRepository archiveRepository,
+                                ApproximateVideoCount approximateCount,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry registry,
+                                @Value("${videos.existence-filter.enabled:true}") boolean enabled,
+                                @Value("${videos.existence-filter.fpp:0.01}") double fpp,
+                                @Value("${videos.existence-filter.trust-margin:PT30S}") Duration trustMargin) {
+        this.repository = repository;
+        this.changeRepository = changeRepository;
+        this.archiveRepository = archiveRepository;
+        this.approximateCount = approximateCount;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // a replica may not have applied the changes yet, and the horizon would claim more than was read
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.fpp = fpp;
+        this.trustMarginMillis = trustMargin.toMillis();
+        this.negative = lookups(registry, "negative");
+        this.positive = lookups(registry, "positive");
+        this.falsePositive = lookups(registry, "false_positive");
+        Gauge.builder("video.existence.filter.fpp", this, f -> f.current == null ? Double.NaN : f.current.ids.expectedFpp())
+                .description("False-positive probability of the id filter at its current fill")
+                .register(registry);
+        Gauge.builder("video.existence.filter.bytes", this, f -> f.current == null ? 0 : f.current.sizeInBytes())
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static Counter lookups(MeterRegistry registry, String result) {
+        return Counter.builder("video.existence.filter.lookups")
+                .description("Existence filter answers; false_positive counts 'maybe' answers the database then missed")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled)
+            Thread.ofVirtual().name("existence-filter-build").start(this::rebuild);
+    }
+
+    @Scheduled(initialDelayString = "${videos.existence-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${videos.existence-filter.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        if (!enabled)
+            return;
+        long start = System.nanoTime();
+        Long count = approximateCount.get();
+        Filters fresh = new Filters(Math.max(MIN_EXPECTED_INSERTIONS, count == null ? 0 : count * 2), fpp);
+        building = fresh;
+        try {
+            // one snapshot for all reads; feed positions follow commit order, so the snapshot holds exactly
+            // the changes up to startSeq, even when it comes from a lagging replica
+            long startSeq = readOnlyTransaction.execute(status -> {
+                long seq = changeRepository.findLastSeq();
+                try (Stream<UUID> ids = repository.streamIds()) {
+                    ids.forEach(fresh::put);
+                }
+                try (Stream<UUID> ids = archiveRepository.streamIds()) {
+                    ids.forEach(fresh::put);
+                }
+                return seq;
+            });
+            if (current == null || position > startSeq)
+                position = startSeq;
+            // the old horizon does not hold for a filter built from an older snapshot; the sync sets it again
+            horizon = 0;
+            current = fresh;
+            sync();
+        } catch (RuntimeException e) {
+            log.error("existence filter build failed: {}", e.toString());
+            return;
+        } finally {
+            building = null;
+        }
+        log.info("existence filter built: [bytes: {}, expectedFpp: {}, millis: {}]",
+                fresh.sizeInBytes(), fresh.ids.expectedFpp(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds ids saved on other instances, read from the change feed on the primary.
+     */
+    @Scheduled(initialDelayString = "${videos.existence-filter.sync-interval:PT1S}",
+            fixedDelayString = "${videos.existence-filter.sync-interval:PT1S}")
+    public synchronized void sync() {
+        Filters filters = current;
+        if (filters == null)
+            return;
+        // every read below starts after this, so it sees every change committed before it
+        long started = System.currentTimeMillis();
+        try {
+            List<VideoChange> batch;
+            do {
+                long since = position;
+                batch = primaryReads.execute(status -> changeRepository.findAfter(since, Limit.of(SYNC_BATCH_SIZE)));
+                for (VideoChange change : batch) {
+                    if (change.getType() != VideoChangedEvent.Type.DELETED)
+                        filters.put(change.getVideoId());
+                    position = change.getSeq();
+                }
+            } while (batch.size() == SYNC_BATCH_SIZE);
+            horizon = started;
+        } catch (RuntimeException e) {
+            log.warn("existence filter sync failed: {}", e.toString());
+        }
+    }
+
+    @EventListener
+    public void onVideoChanged(VideoChangedEvent event) {
+        if (!enabled || event.after() == null)
+            return;
+        Filters filters = current;
+        if (filters != null)
+            filters.put(event.id());
+        Filters next = building;
+        if (next != null)
+            next.put(event.id());
+    }
+
+    /**
+     * True only when no video with this id can exist.
+     */
+    public boolean definitelyAbsent(UUID id) {
+        Filters filters = current;
+        if (filters == null || !trusted(id))
+            return false;
+        return answer(filters.ids.mightContain(BloomFilter.hash(id)));
+    }
+
+    /**
+     * The filter answered "maybe" but the database had no match.
+     */
+    public void recordFalsePositive(UUID id) {
+        if (current != null && trusted(id))
+            falsePositive.increment();
+    }
+
+    /**
+     * Rejects a client-chosen time-ordered id stamped more than half the trust margin ago; the filter relies
+     * on ids being stamped when their video is created. Transactions that create videos are expected to
+     * commit within the other half.
+     */
+    public void checkAssignable(UUID id) {
+        if (enabled && id.version() == 7 && timestamp(id) < System.currentTimeMillis() - trustMarginMillis / 2)
+            throw new VideoServiceException("id", HttpStatus.BAD_REQUEST,
+                    "Time-ordered ids must be generated when the video is created");
+    }
+
+    private boolean trusted(UUID id) {
+        return id.version() == 7 && timestamp(id) < horizon - trustMarginMillis;
+    }
+
+    private static long timestamp(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    private boolean answer(boolean mightContain) {
+        (mightContain ? positive : negative).increment();
+        return !mightContain;
+    }
+
+    private static final class Filters {
+
+        private final BloomFilter ids;
+
+        Filters(long expectedInsertions, double fpp) {
+            this.ids = BloomFilter.create(expectedInsertions, fpp);
+        }
+
+        void put(UUID id) {
+            ids.put(BloomFilter.hash(id));
+        }
+
+        long sizeInBytes() {
+            return ids.sizeInBytes();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package videos.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import videos.dto.VideoDTO;
+import videos.exception.VideoServiceException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes the catalog as NDJSON or CSV while {@link VideoService#export} walks a forward-only cursor, one
+ * row at a time, so memory use does not depend on the number of videos.
+ */
+@Slf4j
+@Service
+public class VideoExportService {
+
+    private static final int FLUSH_EVERY = 1_000;
+    private static final String CSV_HEADER = "id,title,description,userId,userName,completed,created,updated";
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new VideoServiceException("format", HttpStatus.BAD_REQUEST, "format must be one of ndjson, csv");
+            }
+        }
+    }
+
+    private final VideoService service;
+    private final ObjectWriter rowWriter;
+
+    public VideoExportService(VideoService service, ObjectMapper objectMapper) {
+        this.service = service;
+        this.rowWriter = objectMapper.writerFor(VideoDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void export(Format format, UUID userId, Boolean completed, OutputStream out) throws IOException {
+        try {
+            switch (format) {
+                case NDJSON -> exportNdjson(userId, completed, out);
+                case CSV -> exportCsv(userId, completed, out);
+            }
+        } catch (UncheckedIOException e) {
+            log.warn("export aborted: {}", e.getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private void exportNdjson(UUID userId, Boolean completed, OutputStream out) throws IOException {
+        try (JsonGenerator generator = rowWriter.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            long[] rows = {0};
+            service.export(userId, completed, video -> {
+                try {
+                    rowWriter.writeValue(generator, video);
+                    generator.writeRaw('\n');
+                    if (++rows[0] % FLUSH_EVERY == 0)
+                        generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void exportCsv(UUID userId, Boolean completed, OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            long[] rows = {0};
+            service.export(userId, completed, video -> {
+                try {
+                    writer.write(String.join(",",
+                            csv(video.getId()), csv(video.getTitle()), csv(video.getDescription()),
+                            csv(video.getUserId()), csv(video.getUserName()), csv(video.getCompleted()),
+                            csv(video.getCreated()), csv(video.getUpdated())));
+                    writer.write('\n');
+                    if (++rows[0] % FLUSH_EVERY == 0)
+                        writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static String csv(Object value) {
+        if (Objects.isNull(value))
+            return "";
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0)
+            return text;
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
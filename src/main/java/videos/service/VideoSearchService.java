@@ -0,0 +1,49 @@
+package videos.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import videos.domain.Video;
+import videos.dto.VideoDTO;
+import videos.mapper.VideoMapper;
+import videos.repository.VideosRepository;
+import videos.search.VideoSearchIndex;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers free-text queries from {@link VideoSearchIndex} and loads the matched videos with one primary-key
+ * query, keeping the order the index returned them in.
+ */
+@Slf4j
+@Service
+public class VideoSearchService {
+
+    private final VideoSearchIndex index;
+    private final VideosRepository repository;
+    private final VideoMapper mapper;
+
+    public VideoSearchService(VideoSearchIndex index, VideosRepository repository, VideoMapper mapper) {
+        this.index = index;
+        this.repository = repository;
+        this.mapper = mapper;
+    }
+
+    @Transactional(readOnly = true)
+    public List<VideoDTO> search(String query, int limit) {
+        log.debug("search videos: [query: {}, limit: {}]", query, limit);
+        List<UUID> ids = index.search(query, limit);
+        if (ids.isEmpty())
+            return List.of();
+
+        Map<UUID, Video> found = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Video::getId, Function.identity()));
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(mapper::toDTO)
+                .toList();
+    }
+}
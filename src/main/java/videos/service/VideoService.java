@@ -2,16 +2,34 @@ package videos.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import videos.dto.CursorPageDTO;
 import videos.dto.VideoDTO;
+import videos.util.VideoField;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface VideoService {
     VideoDTO save (VideoDTO dto);
+    List<SavedVideo> saveAll (List<VideoDTO> dtos);
     VideoDTO delete (UUID id);
+    VideoDTO markCompleted (UUID id);
+    int markCompleted (Collection<UUID> ids, UUID userId);
     Page<VideoDTO> findAll (PageRequest pageRequest);
+    Page<VideoDTO> findAll (PageRequest pageRequest, Set<VideoField> fields);
+    CursorPageDTO<VideoDTO> findAll (String cursor, int size, boolean includeTotal);
+    CursorPageDTO<VideoDTO> findByUserId (UUID userId, Boolean completed, String cursor, int size);
     VideoDTO findById (UUID id);
+    VideoDTO findById (UUID id, Set<VideoField> fields);
+    List<VideoDTO> findAllById (List<UUID> ids);
+    Instant findLastModified (UUID id);
     public VideoDTO findByTitle (String title);
-    List<VideoDTO> findAllWithFilters (UUID id, String title, Boolean completed);
+    List<VideoDTO> findAllWithFilters (UUID id, UUID userId, String title, Boolean completed, PageRequest pageRequest);
+    List<VideoDTO> findAllWithFilters (UUID id, UUID userId, String title, Boolean completed, PageRequest pageRequest,
+                                       Set<VideoField> fields);
+    long export (UUID userId, Boolean completed, Consumer<VideoDTO> consumer);
 }
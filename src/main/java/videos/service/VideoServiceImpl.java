@@ -1,51 +1,211 @@
 package videos.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import videos.domain.Video;
+import videos.dto.CursorPageDTO;
 import videos.dto.VideoDTO;
+import videos.event.VideoChangedEvent;
+import videos.exception.VideoNotFoundException;
 import videos.exception.VideoServiceException;
 import videos.mapper.VideoMapper;
+import videos.repository.VideoSpecifications;
 import videos.repository.VideosRepository;
+import videos.util.VideoCursor;
+import videos.util.VideoField;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.UUID;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class VideoServiceImpl implements VideoService {
 
+    private static final Sort FILTER_SORT = Sort.by(Sort.Direction.DESC, "created", "id");
+
     private final VideosRepository repository;
     private final VideoMapper mapper;
+    private final ApproximateVideoCount approximateCount;
+    private final VideoCache videoCache;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher events;
+    private final VideoBatchLoader batchLoader;
+    private final VideoExistenceFilter existenceFilter;
+    private final VideoArchiveService archive;
 
-    public VideoServiceImpl(VideosRepository repository, VideoMapper mapper) {
+    public VideoServiceImpl(VideosRepository repository, VideoMapper mapper, ApproximateVideoCount approximateCount,
+                            VideoCache videoCache, EntityManager entityManager, ApplicationEventPublisher events,
+                            VideoBatchLoader batchLoader, VideoExistenceFilter existenceFilter,
+                            VideoArchiveService archive) {
         this.repository = repository;
         this.mapper = mapper;
+        this.approximateCount = approximateCount;
+        this.videoCache = videoCache;
+        this.entityManager = entityManager;
+        this.events = events;
+        this.batchLoader = batchLoader;
+        this.existenceFilter = existenceFilter;
+        this.archive = archive;
     }
 
     @Override
     @Transactional
     public VideoDTO save(VideoDTO dto) {
-        log.debug("save: [{}]", dto.toString());
-        Video savable = null;
+        log.debug("save: [{}]", dto);
+        // new videos are inserted without reading first
+        if (Objects.isNull(dto.getId()))
+            return insert(dto);
+
+        // the one read an update keeps: it locks the row and is the before image of the change event
+        Optional<Video> found = repository.findByIdForUpdate(dto.getId());
+        if (found.isEmpty()) {
+            if (archive.exists(dto.getId()))
+                throw new VideoServiceException("id", HttpStatus.CONFLICT, "Video is archived and can no longer be modified");
+            return insert(dto);
+        }
+        Video current = found.get();
+        entityManager.detach(current);
+        return update(dto, current);
+    }
+
+    private VideoDTO insert(VideoDTO dto) {
+        if (Objects.nonNull(dto.getId()))
+            existenceFilter.checkAssignable(dto.getId());
+        Video video = mapper.toDomain(dto);
+        video.setId(dto.getId());
+        try {
+            entityManager.persist(video);
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            throw conflict(e);
+        }
+        log.info("Video created with Id: '{}'", video.getId());
+        videoCache.evict(video.getId(), video.getTitle());
+        VideoDTO after = mapper.toDTO(video);
+        events.publishEvent(VideoChangedEvent.created(after));
+        return after;
+    }
+
+    private VideoDTO update(VideoDTO dto, Video current) {
+        VideoDTO before = mapper.toDTO(current);
+        Video next = getVideo(dto, current);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Video> update = cb.createCriteriaUpdate(Video.class);
+        Root<Video> root = update.from(Video.class);
+        int changed = 0;
+        changed += set(update, root, "title", before.getTitle(), next.getTitle());
+        changed += set(update, root, "description", before.getDescription(), next.getDescription());
+        changed += set(update, root, "userId", before.getUserId(), next.getUserId());
+        changed += set(update, root, "userName", before.getUserName(), next.getUserName());
+        changed += set(update, root, "completed", before.getCompleted(), next.getCompleted());
+        if (changed == 0)
+            return before;
+
+        Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        update.set(root.<Timestamp>get("updated"), now);
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(cb.equal(root.get("id"), next.getId()));
+        try {
+            entityManager.createQuery(update).executeUpdate();
+        } catch (PersistenceException e) {
+            throw conflict(e);
+        }
+        next.setUpdated(now);
+        next.setVersion(next.getVersion() + 1);
+        log.info("Video updated with Id: '{}' ({} columns)", next.getId(), changed);
+
+        videoCache.evict(next.getId(), before.getTitle(), next.getTitle());
+        VideoDTO after = mapper.toDTO(next);
+        events.publishEvent(VideoChangedEvent.updated(before, after));
+        return after;
+    }
+
+    private static <T> int set(CriteriaUpdate<Video> update, Root<Video> root, String attribute, T before, T after) {
+        if (Objects.equals(before, after))
+            return 0;
+        update.set(root.<T>get(attribute), after);
+        return 1;
+    }
+
+    @Override
+    @Transactional
+    public List<SavedVideo> saveAll(List<VideoDTO> dtos) {
+        log.debug("saveAll: [count: {}]", dtos.size());
+        Set<UUID> ids = dtos.stream().map(VideoDTO::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<UUID, Video> existing = ids.isEmpty() ? Map.of() :
+                repository.findAllById(ids).stream().collect(Collectors.toMap(Video::getId, Function.identity()));
+        // like save(), unknown client ids are created unless the video was archived
+        Set<UUID> archived = archive.findAll(ids.stream().filter(id -> !existing.containsKey(id)).toList()).keySet();
 
-        if (Objects.nonNull(dto.getId())) {
-            Optional<Video> foundOptional = repository.findById(dto.getId());
-            savable =
-                    foundOptional.map(video -> getVideo(dto, video))
-                            .orElseGet(() -> mapper.toDomain(dto));
+        List<Video> saved = new ArrayList<>(dtos.size());
+        List<VideoDTO> befores = new ArrayList<>(dtos.size());
+        for (VideoDTO dto : dtos) {
+            Video found = Objects.isNull(dto.getId()) ? null : existing.get(dto.getId());
+            if (Objects.isNull(found)) {
+                if (archived.contains(dto.getId()))
+                    throw new VideoServiceException("id", HttpStatus.CONFLICT, "Video is archived and can no longer be modified");
+                if (Objects.nonNull(dto.getId()))
+                    existenceFilter.checkAssignable(dto.getId());
+                Video video = mapper.toDomain(dto);
+                video.setId(dto.getId());
+                entityManager.persist(video);
+                videoCache.evict(video.getId(), video.getTitle());
+                saved.add(video);
+                befores.add(null);
+                continue;
+            }
+            videoCache.evict(found.getId(), found.getTitle(), dto.getTitle());
+            befores.add(mapper.toDTO(found));
+            saved.add(getVideo(dto, found));
         }
-        log.info("Video to be saved with Id: '{}'", savable.getId());
-        return mapper.toDTO(repository.save(savable));
+
+        try {
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            throw conflict(e);
+        }
+        log.info("Saved {} videos in one batch", saved.size());
+
+        List<SavedVideo> results = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            VideoDTO before = befores.get(i);
+            VideoDTO after = mapper.toDTO(saved.get(i));
+            events.publishEvent(before == null
+                    ? VideoChangedEvent.created(after)
+                    : VideoChangedEvent.updated(before, after));
+            results.add(new SavedVideo(after, before == null));
+        }
+        return results;
     }
 
     private static Video getVideo(VideoDTO dto, Video foundVideo) {
+        if (Objects.nonNull(dto.getVersion()) && dto.getVersion() != foundVideo.getVersion()) {
+            log.error("Video with id '{}' is at version {}, update was based on version {}",
+                    foundVideo.getId(), foundVideo.getVersion(), dto.getVersion());
+            throw new VideoServiceException("version", HttpStatus.CONFLICT, "Video was modified concurrently");
+        }
         if (Objects.nonNull(dto.getTitle()))
             foundVideo.setTitle(dto.getTitle());
         if (Objects.nonNull(dto.getDescription()))
@@ -60,68 +220,313 @@ public class VideoServiceImpl implements VideoService {
     }
 
     @Override
+    @Transactional
     public VideoDTO delete(UUID id) {
         Video found = repository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("Video with id '{}' not found", id);
-                    return new VideoServiceException("id", HttpStatus.NOT_FOUND, "Video does not exist");
-                });
+                .orElseThrow(() -> notFound(id));
 
         repository.delete(found);
+        videoCache.evict(found.getId(), found.getTitle());
         log.debug("video with given Id: '{}' is deleted", id);
-        return mapper.toDTO(found);
+        VideoDTO deleted = mapper.toDTO(found);
+        events.publishEvent(VideoChangedEvent.deleted(deleted));
+        return deleted;
+
+    }
+
+    @Override
+    @Transactional
+    public VideoDTO markCompleted(UUID id) {
+        VideoDTO before = repository.findById(id)
+                .map(mapper::toDTO)
+                .orElseThrow(() -> notFound(id));
+        if (Boolean.TRUE.equals(before.getCompleted())) {
+            log.debug("video with given Id: '{}' already completed", id);
+            return before;
+        }
+
+        // optimistic: the row is not locked, the update only applies to the version read above
+        Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        if (repository.markCompleted(id, before.getVersion(), now) == 0)
+            throw new VideoServiceException("version", HttpStatus.CONFLICT, "Video was modified concurrently");
+        videoCache.evict(id);
 
+        VideoDTO after = before.toBuilder()
+                .completed(true)
+                .updated(now.toLocalDateTime())
+                .version(before.getVersion() + 1)
+                .build();
+        log.debug("video with given Id: '{}' marked completed", id);
+        events.publishEvent(VideoChangedEvent.completed(before, after));
+        return after;
     }
 
     @Override
+    @Transactional
+    public int markCompleted(Collection<UUID> ids, UUID userId) {
+        if (Objects.isNull(ids) == Objects.isNull(userId)) {
+            log.error("Mark completed needs either ids or userId: [ids: {}, userId: {}]", ids, userId);
+            throw new VideoServiceException("ids", HttpStatus.BAD_REQUEST, "Provide either ids or userId");
+        }
+
+        // lock the rows that will change so each one can be recorded in the change feed
+        List<Video> targets = Objects.nonNull(ids)
+                ? repository.findIncompleteForUpdate(ids)
+                : repository.findIncompleteByUserIdForUpdate(userId);
+        if (targets.isEmpty())
+            return 0;
+
+        List<VideoDTO> befores = targets.stream().map(mapper::toDTO).toList();
+        List<UUID> targetIds = befores.stream().map(VideoDTO::getId).toList();
+        Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        int updated = repository.markCompletedByIds(targetIds, now);
+        targetIds.forEach(videoCache::evict);
+
+        for (VideoDTO before : befores) {
+            events.publishEvent(VideoChangedEvent.completed(before, before.toBuilder()
+                    .completed(true)
+                    .updated(now.toLocalDateTime())
+                    .version(before.getVersion() + 1)
+                    .build()));
+        }
+        log.info("Marked {} videos completed [ids: {}, userId: {}]", updated, ids == null ? null : ids.size(), userId);
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<VideoDTO> findAll(PageRequest pageRequest) {
         log.debug("findAll() called");
         return repository.findAll(pageRequest).map(mapper::toDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<VideoDTO> findAll(String cursor, int size, boolean includeTotal) {
+        log.debug("findAll() called with cursor: [cursor: {}, size: {}]", cursor, size);
+
+        Limit limit = Limit.of(size + 1);
+        List<Video> videos;
+        if (cursor == null || cursor.isBlank()) {
+            videos = repository.findFirstKeysetPage(limit);
+        } else {
+            VideoCursor position = VideoCursor.decode(cursor);
+            videos = repository.findNextKeysetPage(position.created(), position.id(), limit);
+        }
+
+        return toCursorPage(videos, size, includeTotal ? approximateCount.get() : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<VideoDTO> findByUserId(UUID userId, Boolean completed, String cursor, int size) {
+        log.debug("find videos of user: [userId: {}, completed: {}, cursor: {}, size: {}]", userId, completed, cursor, size);
+
+        Limit limit = Limit.of(size + 1);
+        List<Video> videos;
+        if (cursor == null || cursor.isBlank()) {
+            videos = repository.findFirstUserKeysetPage(userId, completed, limit);
+        } else {
+            VideoCursor position = VideoCursor.decode(cursor);
+            videos = repository.findNextUserKeysetPage(userId, completed, position.created(), position.id(), limit);
+        }
+        return toCursorPage(videos, size, null);
+    }
+
+    // videos holds up to size + 1 rows; the extra row only signals that another page exists
+    private CursorPageDTO<VideoDTO> toCursorPage(List<Video> videos, int size, Long approximateTotal) {
+        boolean hasNext = videos.size() > size;
+        List<Video> content = hasNext ? videos.subList(0, size) : videos;
+        String nextCursor = null;
+        if (hasNext) {
+            Video last = content.getLast();
+            nextCursor = new VideoCursor(last.getCreated(), last.getId()).encode();
+        }
+
+        return CursorPageDTO.<VideoDTO>builder()
+                .content(content.stream().map(mapper::toDTO).toList())
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .approximateTotal(approximateTotal)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<VideoDTO> findAll(PageRequest pageRequest, Set<VideoField> fields) {
+        if (fields == null)
+            return findAll(pageRequest);
+        log.debug("findAll() called with fields: {}", fields);
+        List<VideoDTO> content = repository.findProjected(Specification.allOf(), fields, pageRequest);
+        return PageableExecutionUtils.getPage(content, pageRequest, repository::count);
+    }
+
+    // findById, findByTitle and findLastModified stay on the primary: their results are cached or compared
+    // against cached bodies, and a lagging replica would pin a stale video in the cache until it expires
     @Override
     public VideoDTO findById(UUID id) {
         log.debug("find video by Id: [Id: {}]", id);
 
-        Video found = repository.findById(id)
+        if (existenceFilter.definitelyAbsent(id))
+            throw notFound(id);
+        return videoCache.getById(id, () -> batchLoader.load(id)
+                .or(() -> archive.find(id))
+                .orElseThrow(() -> {
+                    existenceFilter.recordFalsePositive(id);
+                    return notFound(id);
+                }));
+    }
+
+    /**
+     * A cached video is projected in memory; otherwise only the requested columns are read, and the partial
+     * result is not cached.
+     */
+    @Override
+    public VideoDTO findById(UUID id, Set<VideoField> fields) {
+        if (fields == null)
+            return findById(id);
+        log.debug("find video by Id: [Id: {}, fields: {}]", id, fields);
+
+        if (existenceFilter.definitelyAbsent(id))
+            throw notFound(id);
+        VideoDTO cached = videoCache.peek(id);
+        if (cached != null)
+            return VideoField.project(cached, fields);
+        return repository.findProjected(VideoSpecifications.hasId(id), fields, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .or(() -> archive.find(id).map(video -> VideoField.project(video, fields)))
                 .orElseThrow(() -> {
-                    log.error("Video with given id '{}' is not found", id);
-                    return new VideoServiceException("id", HttpStatus.NOT_FOUND, "Video does not exist");
+                    existenceFilter.recordFalsePositive(id);
+                    return notFound(id);
                 });
+    }
 
-        return mapper.toDTO(found);
+    @Override
+    public List<VideoDTO> findAllById(List<UUID> ids) {
+        log.debug("find videos by ids: [count: {}]", ids.size());
 
+        Set<UUID> candidates = new LinkedHashSet<>(ids);
+        candidates.removeIf(existenceFilter::definitelyAbsent);
+        Map<UUID, VideoDTO> found = videoCache.getAllById(candidates, this::loadAll);
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).toList();
     }
 
-    public List<VideoDTO> findAllWithFilters(UUID id, String title, Boolean completed) {
-        log.debug("find all videos with filters: [id: {}, title: {}, completed: {}]", id, title, completed);
+    // ids missing from tbl_video are looked up in the archive with one more query
+    private Map<UUID, VideoDTO> loadAll(Collection<UUID> ids) {
+        Map<UUID, VideoDTO> found = batchLoader.loadAll(ids);
+        if (found.size() == ids.size())
+            return found;
+        Map<UUID, VideoDTO> all = new HashMap<>(found);
+        all.putAll(archive.findAll(ids.stream().filter(id -> !found.containsKey(id)).toList()));
+        return all;
+    }
 
-        List<Video> filteredVideos = repository.findAll().stream()
-                .filter(video -> (id == null || video.getId().equals(id)) &&
-                        (title == null || video.getTitle().equalsIgnoreCase(title)) &&
-                        (completed == null || video.getCompleted().equals(completed)))
-                .toList();
+    @Override
+    public Instant findLastModified(UUID id) {
+        log.debug("find last modified of video: [Id: {}]", id);
+
+        if (existenceFilter.definitelyAbsent(id))
+            throw notFound(id);
+        Timestamp updated = repository.findVersionById(id)
+                .or(() -> archive.findVersion(id))
+                .orElseThrow(() -> {
+                    existenceFilter.recordFalsePositive(id);
+                    return notFound(id);
+                })
+                .updated();
+        return updated == null ? Instant.EPOCH : updated.toInstant();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VideoDTO> findAllWithFilters(UUID id, UUID userId, String title, Boolean completed, PageRequest pageRequest) {
+        log.debug("find all videos with filters: [id: {}, userId: {}, title: {}, completed: {}, page: {}, size: {}]",
+                id, userId, title, completed, pageRequest.getPageNumber(), pageRequest.getPageSize());
+
+        // the response carries no total, so no count query is run for it
+        List<Video> filteredVideos =
+                repository.findPage(VideoSpecifications.withFilters(id, userId, title, completed),
+                        pageRequest.withSort(FILTER_SORT));
 
         if (filteredVideos.isEmpty()) {
-            log.error("No videos matched the provided filters");
-            throw new VideoServiceException("filterCriteria", HttpStatus.NOT_FOUND, "No videos matched the criteria");
+            log.debug("No videos matched the provided filters");
+            throw new VideoNotFoundException("filterCriteria", "No videos matched the criteria");
         }
 
         log.debug("Filtered videos count: {}", filteredVideos.size());
         return filteredVideos.stream().map(mapper::toDTO).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<VideoDTO> findAllWithFilters(UUID id, UUID userId, String title, Boolean completed, PageRequest pageRequest,
+                                             Set<VideoField> fields) {
+        if (fields == null)
+            return findAllWithFilters(id, userId, title, completed, pageRequest);
+        log.debug("find all videos with filters: [id: {}, userId: {}, title: {}, completed: {}, page: {}, size: {}, fields: {}]",
+                id, userId, title, completed, pageRequest.getPageNumber(), pageRequest.getPageSize(), fields);
+
+        List<VideoDTO> filteredVideos = repository.findProjected(VideoSpecifications.withFilters(id, userId, title, completed),
+                fields, pageRequest.withSort(FILTER_SORT));
+        if (filteredVideos.isEmpty()) {
+            log.debug("No videos matched the provided filters");
+            throw new VideoNotFoundException("filterCriteria", "No videos matched the criteria");
+        }
+        return filteredVideos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(UUID userId, Boolean completed, Consumer<VideoDTO> consumer) {
+        log.debug("export videos: [userId: {}, completed: {}]", userId, completed);
+        long count = 0;
+        try (Stream<Video> videos = repository.streamAll(userId, completed)) {
+            for (Video video : (Iterable<Video>) videos::iterator) {
+                consumer.accept(mapper.toDTO(video));
+                entityManager.detach(video);
+                count++;
+            }
+        }
+        log.info("Exported {} videos", count);
+        return count;
+    }
+
     @Override
     public VideoDTO findByTitle(String title) {
         log.debug("find by title: [title: {}]", title);
 
-        Video found =
-                repository.findByTitle(title)
-                        .orElseThrow(() -> {
-                            log.error("Video with title '{}' does not exist", title);
-                            return new VideoServiceException("title",
-                                    HttpStatus.NOT_FOUND, "Video with the given title does not exist");
-                        });
-        return mapper.toDTO(found);
+        return videoCache.getByTitle(title, () -> {
+            Video found =
+                    repository.findByTitle(title)
+                            .orElseThrow(() -> titleNotFound(title));
+            return mapper.toDTO(found);
+        });
+    }
+
+    // Hibernate hands constraint violations to the EntityManager caller wrapped in a PersistenceException, and
+    // this is not a @Repository, so nothing translates them on the way out
+    private static RuntimeException conflict(PersistenceException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+            if (cause instanceof ConstraintViolationException violation)
+                return conflict(violation);
+        return e;
+    }
+
+    private static VideoServiceException conflict(ConstraintViolationException e) {
+        log.debug("save conflicts with an existing video on '{}'", e.getConstraintName());
+        if ("title".equalsIgnoreCase(e.getConstraintName()))
+            return new VideoServiceException("title", HttpStatus.CONFLICT, "A video with this title already exists");
+        return new VideoServiceException("id", HttpStatus.CONFLICT, "A video with this id already exists");
+    }
+
+    private static VideoNotFoundException notFound(UUID id) {
+        log.debug("Video with id '{}' not found", id);
+        return new VideoNotFoundException("id", "Video does not exist");
+    }
+
+    private static VideoNotFoundException titleNotFound(String title) {
+        log.debug("Video with title '{}' does not exist", title);
+        return new VideoNotFoundException("title", "Video with the given title does not exist");
     }
 }
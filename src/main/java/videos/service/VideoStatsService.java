@@ -0,0 +1,255 @@
+package videos.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import videos.domain.VideoStats;
+import videos.dto.VideoDTO;
+import videos.dto.VideoStatsDTO;
+import videos.event.VideoChangedEvent;
+import videos.repository.VideoStatsRepository;
+import videos.util.CommonUtil;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Completion totals per user and for the whole catalog, kept current without scanning tbl_video.
+ * Committed changes are queued as deltas stamped with the change feed position of their transaction; a
+ * scheduled flush adds what was queued to tbl_video_stats with one batched upsert, so hot users cost one row
+ * update per interval. Reads are a primary-key lookup plus this instance's unflushed delta. A rebuild job
+ * recomputes the table from tbl_video to reconcile drift, e.g. deltas lost in a crash.
+ * <p>
+ * Only one instance rebuilds at a time, under a named lock. A rebuild recounts from one snapshot together
+ * with the feed position that snapshot reflects, and stores that position on the global row. Feed positions
+ * follow commit order, so a flush drops exactly the deltas at or below it, which the recount already holds,
+ * and adds the rest: no instance's changes are counted twice or lost.
+ */
+@Slf4j
+@Service
+public class VideoStatsService {
+
+    public static final UUID GLOBAL = new UUID(0L, 0L);
+
+    // archived videos still count; only a purge removes them from the totals
+    private static final String ALL_VIDEOS = "(select user_id, completed from tbl_video " +
+            "union all select user_id, completed from tbl_video_archive)";
+    private static final String UPSERT = "insert into tbl_video_stats (user_id, total, completed, updated) " +
+            "values (?, ?, ?, ?) on duplicate key update total = total + values(total), " +
+            "completed = completed + values(completed), updated = values(updated)";
+    private static final String COUNT_USERS = "select user_id, count(*) total, coalesce(sum(completed = 1), 0) completed " +
+            "from " + ALL_VIDEOS + " v where user_id is not null group by user_id";
+    private static final String COUNT_GLOBAL = "select count(*) total, coalesce(sum(completed = 1), 0) completed " +
+            "from " + ALL_VIDEOS + " v";
+    private static final String INSERT_USER = "insert into tbl_video_stats (user_id, total, completed, updated) " +
+            "values (?, ?, ?, ?)";
+    private static final String INSERT_GLOBAL = "insert into tbl_video_stats (user_id, total, completed, updated, covered_seq) " +
+            "values (?, ?, ?, ?, ?)";
+    // flushes and rebuilds lock the global row first, so a flush either commits before a rebuild recounts or
+    // sees the position it covered; every flush updates that row anyway, so this adds no contention
+    private static final String COVERED_SEQ = "select coalesce(max(covered_seq), 0) from tbl_video_stats " +
+            "where user_id = ? for update";
+    private static final String SNAPSHOT_SEQ = "select last_seq from tbl_video_change_seq where id = 1";
+    private static final String LOCK = "select get_lock('videos.stats.rebuild', 0)";
+    private static final String UNLOCK = "select release_lock('videos.stats.rebuild')";
+
+    private final VideoStatsRepository repository;
+    private final ChangeSequencer sequencer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate rebuildTransaction;
+
+    private final Queue<Delta> deltas = new ConcurrentLinkedQueue<>();
+    // the queued deltas summed per key, added to reads until they are flushed
+    private final Map<UUID, Counts> unflushed = new ConcurrentHashMap<>();
+
+    public VideoStatsService(VideoStatsRepository repository, ChangeSequencer sequencer, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.sequencer = sequencer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        // plain selects read one snapshot without locking any video row; the feed position read first
+        // tells which changes that snapshot holds
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener
+    public void onVideoChanged(VideoChangedEvent event) {
+        VideoDTO before = event.before();
+        VideoDTO after = event.after();
+        if (before != null && after != null
+                && Objects.equals(before.getUserId(), after.getUserId()) && isCompleted(before) == isCompleted(after))
+            return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count(before, after, Long.MAX_VALUE);
+            return;
+        }
+        // afterCommit runs before the transaction's feed positions are released
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long seq = sequencer.committedSeq();
+                count(before, after, seq < 0 ? Long.MAX_VALUE : seq);
+            }
+        });
+    }
+
+    public VideoStatsDTO get(UUID userId) {
+        UUID key = userId == null ? GLOBAL : userId;
+        Optional<VideoStats> flushed = repository.findById(key);
+        long total = flushed.map(VideoStats::getTotal).orElse(0L);
+        long completed = flushed.map(VideoStats::getCompleted).orElse(0L);
+        Counts pending = unflushed.get(key);
+        if (pending != null) {
+            total += pending.total.sum();
+            completed += pending.completed.sum();
+        }
+        return VideoStatsDTO.builder()
+                .userId(userId)
+                .total(total)
+                .completed(completed)
+                .completionRate(total == 0 ? 0 : (double) completed / total)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${videos.stats.flush-interval:PT5S}")
+    public synchronized void flush() {
+        List<Delta> drained = new ArrayList<>();
+        for (Delta delta = deltas.poll(); delta != null; delta = deltas.poll())
+            drained.add(delta);
+        if (drained.isEmpty())
+            return;
+
+        Timestamp now = Timestamp.from(Instant.now());
+        long covered;
+        try {
+            covered = Objects.requireNonNull(transaction.execute(status -> {
+                long seq = Objects.requireNonNull(jdbcTemplate.queryForObject(COVERED_SEQ, Long.class,
+                        CommonUtil.toBytes(GLOBAL)));
+                Map<UUID, long[]> sums = new LinkedHashMap<>();
+                for (Delta delta : drained) {
+                    if (delta.seq() <= seq)
+                        continue;
+                    long[] sum = sums.computeIfAbsent(delta.key(), k -> new long[2]);
+                    sum[0] += delta.total();
+                    sum[1] += delta.completed();
+                }
+                List<Object[]> rows = new ArrayList<>(sums.size());
+                sums.forEach((key, sum) -> {
+                    if (sum[0] != 0 || sum[1] != 0)
+                        rows.add(new Object[]{CommonUtil.toBytes(key), sum[0], sum[1], now});
+                });
+                if (!rows.isEmpty())
+                    jdbcTemplate.batchUpdate(UPSERT, rows);
+                return seq;
+            }));
+        } catch (RuntimeException e) {
+            deltas.addAll(drained);
+            log.warn("video stats flush failed, retrying next interval: {}", e.getMessage());
+            return;
+        }
+        // applied deltas are in the table now, dropped ones were already in the recount
+        drained.forEach(delta -> {
+            Counts entry = unflushed.get(delta.key());
+            entry.total.add(-delta.total());
+            entry.completed.add(-delta.completed());
+        });
+        long dropped = drained.stream().filter(delta -> delta.seq() <= covered).count();
+        log.debug("flushed video stats: [deltas: {}, alreadyRecounted: {}]", drained.size(), dropped);
+    }
+
+    @Scheduled(cron = "${videos.stats.rebuild-cron:0 30 3 * * *}")
+    public synchronized void rebuild() {
+        Timestamp now = Timestamp.from(Instant.now());
+        Long covered;
+        try {
+            covered = rebuildTransaction.execute(status -> {
+                // cron fires on every instance; the ones that do not get the lock leave this run to the owner
+                if (!Objects.equals(jdbcTemplate.queryForObject(LOCK, Integer.class), 1))
+                    return null;
+                try {
+                    jdbcTemplate.queryForObject(COVERED_SEQ, Long.class, CommonUtil.toBytes(GLOBAL));
+                    // the first plain read fixes the snapshot the counts below are taken from
+                    long seq = Objects.requireNonNull(jdbcTemplate.queryForObject(SNAPSHOT_SEQ, Long.class));
+                    List<Object[]> users = jdbcTemplate.query(COUNT_USERS, (rs, rowNum) -> new Object[]{
+                            rs.getBytes("user_id"), rs.getLong("total"), rs.getLong("completed"), now});
+                    Object[] global = jdbcTemplate.queryForObject(COUNT_GLOBAL, (rs, rowNum) -> new Object[]{
+                            CommonUtil.toBytes(GLOBAL), rs.getLong("total"), rs.getLong("completed"), now, seq});
+                    jdbcTemplate.update("delete from tbl_video_stats");
+                    jdbcTemplate.batchUpdate(INSERT_USER, users);
+                    jdbcTemplate.update(INSERT_GLOBAL, global);
+                    return seq;
+                } finally {
+                    jdbcTemplate.queryForObject(UNLOCK, Integer.class);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("video stats rebuild failed: {}", e.getMessage());
+            return;
+        }
+        if (covered == null) {
+            log.info("video stats rebuild skipped, another instance holds the rebuild lock");
+            return;
+        }
+        log.info("video stats rebuilt from tbl_video: [feedPosition: {}]", covered);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        Thread.ofVirtual().name("video-stats-rebuild").start(() -> {
+            try {
+                if (repository.findById(GLOBAL).isEmpty())
+                    rebuild();
+            } catch (RuntimeException e) {
+                log.warn("video stats check failed, totals are rebuilt by the scheduled job: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void count(VideoDTO before, VideoDTO after, long seq) {
+        count(before, -1, seq);
+        count(after, 1, seq);
+    }
+
+    private void count(VideoDTO video, int delta, long seq) {
+        if (video == null)
+            return;
+        add(GLOBAL, video, delta, seq);
+        if (video.getUserId() != null)
+            add(video.getUserId(), video, delta, seq);
+    }
+
+    private void add(UUID key, VideoDTO video, int delta, long seq) {
+        int completed = isCompleted(video) ? delta : 0;
+        Counts entry = unflushed.computeIfAbsent(key, k -> new Counts());
+        entry.total.add(delta);
+        entry.completed.add(completed);
+        deltas.add(new Delta(key, seq, delta, completed));
+    }
+
+    private static boolean isCompleted(VideoDTO video) {
+        return Boolean.TRUE.equals(video.getCompleted());
+    }
+
+    private record Delta(UUID key, long seq, int total, int completed) {
+    }
+
+    private static final class Counts {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+    }
+}
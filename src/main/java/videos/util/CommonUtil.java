@@ -1,21 +1,34 @@
 package videos.util;
 
+import org.slf4j.MDC;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import videos.dto.VideoDTO;
 import videos.exception.ExceptionInfo;
 import videos.exception.VideoServiceException;
+import videos.logging.CorrelationIdFilter;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class CommonUtil {
 
-    public static ResponseEntity<Object> buildErrorResponse(Exception re, WebRequest request) {
+    private static final Map<String, String> REPRESENTATION_SUFFIXES = Map.of(
+            "x-jackson-smile", "-smile",
+            "cbor", "-cbor");
 
-        Map<String, List<Object>> body = new HashMap<>();
-        List<Object> errors = new ArrayList<>();
+    public static ResponseEntity<Object> buildErrorResponse(Exception re, WebRequest request) {
 
         ExceptionInfo info = switch (re) {
             case VideoServiceException use ->
@@ -27,9 +40,7 @@ public class CommonUtil {
                             HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected Video Service Error",
                             ZonedDateTime.now(), ((ServletWebRequest) request).getRequest().getRequestURI());
         };
-        errors.add(info);
-        body.put("errors", errors);
-        return new ResponseEntity<>(body, info.status());
+        return new ResponseEntity<>(Map.of("errors", List.of(info)), info.status());
     }
 
     public static ExceptionInfo buildExceptionInfo(String entityName,
@@ -37,7 +48,113 @@ public class CommonUtil {
                                                    HttpStatus status,
                                                    String message,
                                                    ZonedDateTime timestamp, String path) {
-        return new ExceptionInfo(UUID.randomUUID().toString(), entityName, code, status, message, ZonedDateTime.now(), path);
+        return new ExceptionInfo(errorId(), entityName, code, status, message, timestamp, path);
+    }
+
+    public static String buildETag(UUID id, Instant updated) {
+        return "\"" + id + "-" + Long.toHexString(epochMicros(updated)) + "\"";
+    }
+
+    public static String buildETag(VideoDTO video) {
+        return buildETag(video.getId(), lastModified(video));
+    }
+
+    /**
+     * The ETag of one representation. JSON keeps the format-independent tag; Smile and CBOR get a suffix,
+     * since their bytes differ from the JSON body a cache may already hold under the plain tag.
+     */
+    public static String representationETag(String eTag, MediaType format) {
+        String suffix = format == null ? null : REPRESENTATION_SUFFIXES.get(format.getSubtype());
+        return suffix == null ? eTag : eTag.substring(0, eTag.length() - 1) + suffix + "\"";
+    }
+
+    /**
+     * The tag in an {@code If-None-Match} header that names {@code eTag} in any representation, so it can be
+     * echoed back with a 304, or null when none does.
+     */
+    public static String matchETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null)
+            return null;
+        String plain = eTag.substring(0, eTag.length() - 1);
+        for (String value : ifNoneMatch.split(",")) {
+            String tag = value.trim();
+            if (tag.equals("*"))
+                return eTag;
+            if (tag.equals(eTag) || REPRESENTATION_SUFFIXES.values().stream().anyMatch(suffix -> tag.equals(plain + suffix + "\"")))
+                return tag;
+        }
+        return null;
+    }
+
+    /**
+     * Strong ETag for a list response, derived from the ids and update times of its videos plus any
+     * response state that is not part of the videos themselves (totals, cursors).
+     */
+    public static String buildListETag(Collection<VideoDTO> videos, Object... state) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Long.BYTES);
+        for (VideoDTO video : videos) {
+            buffer.clear();
+            buffer.putLong(video.getId().getMostSignificantBits())
+                    .putLong(video.getId().getLeastSignificantBits())
+                    .putLong(epochMicros(lastModified(video)));
+            digest.update(buffer.array());
+        }
+        for (Object value : state)
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    public static Instant lastModified(VideoDTO video) {
+        return video.getUpdated() == null ? Instant.EPOCH : Timestamp.valueOf(video.getUpdated()).toInstant();
+    }
+
+    public static Instant lastModified(Collection<VideoDTO> videos) {
+        return videos.stream().map(CommonUtil::lastModified).max(Comparator.naturalOrder()).orElse(Instant.EPOCH);
+    }
+
+    /**
+     * The 16-byte form used for {@code VARBINARY(16)} id columns, for binding in native SQL.
+     */
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Reads an id column fetched with plain JDBC; the inverse of {@link #toBytes(UUID)}.
+     */
+    public static UUID toUuid(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * The request's correlation id, so an error body can be matched with its log lines. Outside a request,
+     * a random v4 UUID; it only needs to be unique, so it comes from ThreadLocalRandom rather than the
+     * SecureRandom behind UUID.randomUUID().
+     */
+    private static String errorId() {
+        String correlationId = MDC.get(CorrelationIdFilter.MDC_KEY);
+        if (correlationId != null)
+            return correlationId;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    private static long epochMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
     }
 
 }
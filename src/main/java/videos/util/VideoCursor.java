@@ -0,0 +1,51 @@
+package videos.util;
+
+import org.springframework.http.HttpStatus;
+import videos.exception.VideoServiceException;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position over ({@code created}, {@code id}), handed to clients as an opaque base64url token.
+ */
+public record VideoCursor(Timestamp created, UUID id) {
+
+    private static final byte VERSION = 1;
+    private static final int ENCODED_LENGTH = 1 + Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    public VideoCursor {
+        if (created == null || id == null)
+            throw new IllegalArgumentException("A cursor position needs created and id");
+    }
+
+    public String encode() {
+        Instant instant = created.toInstant();
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_LENGTH)
+                .put(VERSION)
+                .putLong(instant.getEpochSecond())
+                .putInt(instant.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static VideoCursor decode(String token) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (buffer.remaining() != ENCODED_LENGTH || buffer.get() != VERSION)
+                throw invalid();
+            Timestamp created = Timestamp.from(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()));
+            return new VideoCursor(created, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    private static VideoServiceException invalid() {
+        return new VideoServiceException("cursor", HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -0,0 +1,101 @@
+package videos.util;
+
+import org.springframework.http.HttpStatus;
+import videos.dto.VideoDTO;
+import videos.exception.VideoServiceException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link VideoDTO} field selectable through {@code ?fields=}, with the entity attribute it is read from and
+ * the bytes its column takes per row (declared width for varchar columns, so savings are an upper bound).
+ */
+public enum VideoField {
+
+    ID("id", 16, VideoDTO::getId, (dto, value) -> dto.setId((UUID) value)),
+    TITLE("title", 30, VideoDTO::getTitle, (dto, value) -> dto.setTitle((String) value)),
+    DESCRIPTION("description", 100, VideoDTO::getDescription, (dto, value) -> dto.setDescription((String) value)),
+    USER_ID("userId", 16, VideoDTO::getUserId, (dto, value) -> dto.setUserId((UUID) value)),
+    USER_NAME("userName", 20, VideoDTO::getUserName, (dto, value) -> dto.setUserName((String) value)),
+    COMPLETED("completed", 1, VideoDTO::getCompleted, (dto, value) -> dto.setCompleted((Boolean) value)),
+    CREATED("created", 8, VideoDTO::getCreated, (dto, value) -> dto.setCreated(toLocalDateTime(value))),
+    UPDATED("updated", 8, VideoDTO::getUpdated, (dto, value) -> dto.setUpdated(toLocalDateTime(value))),
+    VERSION("version", 8, VideoDTO::getVersion, (dto, value) -> dto.setVersion((Long) value));
+
+    // id and updated back the ETag and Last-Modified headers, so they are part of every projection
+    private static final Set<VideoField> ALWAYS = EnumSet.of(ID, UPDATED);
+    private static final Map<String, VideoField> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(VideoField::attribute, Function.identity()));
+
+    private final String attribute;
+    private final int bytes;
+    private final Function<VideoDTO, Object> getter;
+    private final BiConsumer<VideoDTO, Object> setter;
+
+    VideoField(String attribute, int bytes, Function<VideoDTO, Object> getter, BiConsumer<VideoDTO, Object> setter) {
+        this.attribute = attribute;
+        this.bytes = bytes;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    public int bytes() {
+        return bytes;
+    }
+
+    /**
+     * Sets this field from a value read from the database, or from another {@link VideoDTO}.
+     */
+    public void set(VideoDTO dto, Object value) {
+        setter.accept(dto, value);
+    }
+
+    /**
+     * The fields named in a {@code fields} parameter plus id and updated, or null for a blank parameter,
+     * meaning the full video.
+     */
+    public static Set<VideoField> parse(String fields) {
+        if (fields == null || fields.isBlank())
+            return null;
+        Set<VideoField> parsed = EnumSet.copyOf(ALWAYS);
+        List<String> unknown = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            VideoField field = BY_NAME.get(name.trim());
+            if (field == null)
+                unknown.add(name.trim());
+            else
+                parsed.add(field);
+        }
+        if (!unknown.isEmpty())
+            throw new VideoServiceException("fields", HttpStatus.BAD_REQUEST,
+                    "Unknown fields " + unknown + ", expected any of " + BY_NAME.keySet());
+        return parsed;
+    }
+
+    /**
+     * A copy of {@code video} holding only the given fields.
+     */
+    public static VideoDTO project(VideoDTO video, Set<VideoField> fields) {
+        VideoDTO projected = new VideoDTO();
+        for (VideoField field : fields)
+            field.set(projected, field.getter.apply(video));
+        return projected;
+    }
+
+    public static int bytes(Set<VideoField> fields) {
+        return fields.stream().mapToInt(VideoField::bytes).sum();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,7 @@
+-- work-queue leases behind POST /api/videos/claims; an incomplete video is claimable while it has no lease or
+-- its lease has expired, so videos of a worker that stopped renewing are re-queued without a cleanup job
+alter table tbl_video
+    add column lease_owner varchar(64) null,
+    add column lease_expires timestamp(6) null;
+-- the claim scan: incomplete videos with no lease (nulls sort first) or an expired one, in index order
+create index idx_video_completed_lease on tbl_video (completed, lease_expires);
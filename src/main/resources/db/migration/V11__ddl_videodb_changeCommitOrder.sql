@@ -0,0 +1,12 @@
+-- change feed sequence numbers follow commit order: rows are inserted with seq null and numbered from
+-- tbl_video_change_seq just before their transaction commits, while it holds that counter's row lock
+alter table tbl_video_change
+    change seq id bigint not null auto_increment,
+    add column seq bigint null after id,
+    add unique index uk_video_change_seq (seq);
+update tbl_video_change set seq = id;
+create table tbl_video_change_seq (
+    id tinyint not null primary key,
+    last_seq bigint not null
+) engine=InnoDB;
+insert into tbl_video_change_seq (id, last_seq) select 1, coalesce(max(seq), 0) from tbl_video_change;
@@ -0,0 +1,4 @@
+-- bumped on the global row by every rebuild; a flush of deltas counted under an earlier generation is
+-- dropped instead of being added on top of totals that already include them
+alter table tbl_video_stats
+    add column generation bigint not null default 0;
@@ -0,0 +1,5 @@
+-- keyset pages compare (created, id), which never matches a null created; such rows get their update time,
+-- or the epoch, so every video is reachable by cursor
+update tbl_video set created = coalesce(updated, from_unixtime(1)) where created is null;
+alter table tbl_video
+    modify created timestamp(6) not null default current_timestamp(6);
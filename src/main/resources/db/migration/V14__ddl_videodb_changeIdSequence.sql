@@ -0,0 +1,11 @@
+-- outbox ids come from a sequence Hibernate allocates in blocks of 50, so change rows join the JDBC insert
+-- batch of their transaction instead of each taking a round trip for its auto_increment key. The first
+-- block Hibernate hands out ends at the sequence's start value, so it starts a full block above the
+-- existing ids.
+set @start = (select coalesce(max(id), 0) + 50 from tbl_video_change);
+set @ddl = concat('create sequence seq_video_change_id start with ', @start, ' increment by 50');
+prepare create_sequence from @ddl;
+execute create_sequence;
+deallocate prepare create_sequence;
+alter table tbl_video_change
+    modify id bigint not null;
@@ -0,0 +1,6 @@
+-- a rebuild stores the change feed position its recount reflects on the global row; a flush drops only the
+-- deltas at or below it, which the recount already holds, instead of everything counted under an older
+-- generation
+alter table tbl_video_stats
+    drop column generation,
+    add column covered_seq bigint not null default 0;
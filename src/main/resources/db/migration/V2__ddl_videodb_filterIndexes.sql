@@ -0,0 +1,6 @@
+-- title lookups are case-insensitive, keep the unique index usable for them
+alter table tbl_video
+    modify title varchar(30) character set utf8mb4 collate utf8mb4_unicode_ci;
+
+create index idx_video_user_completed on tbl_video (user_id, completed);
+create index idx_video_completed_created on tbl_video (completed, created);
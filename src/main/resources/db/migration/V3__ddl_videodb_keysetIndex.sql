@@ -0,0 +1,2 @@
+-- backs keyset pagination over (created, id) for GET /api/videos?cursor=
+create index idx_video_created_id on tbl_video (created, id);
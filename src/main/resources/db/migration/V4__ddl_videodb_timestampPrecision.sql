@@ -0,0 +1,4 @@
+-- microsecond precision so ETag/Last-Modified and keyset cursors distinguish updates within a second
+alter table tbl_video
+    modify created timestamp(6) null,
+    modify updated timestamp(6) null;
@@ -0,0 +1,3 @@
+-- optimistic locking column, bumped by every update including the single-statement completion updates
+alter table tbl_video
+    add column version bigint not null default 0;
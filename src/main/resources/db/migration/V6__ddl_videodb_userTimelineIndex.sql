@@ -0,0 +1,3 @@
+-- backs GET /api/videos/users/{userId}: equality on user_id, keyset over created; innodb appends the primary
+-- key (id) to every secondary index, so the (created, id) tie-break is covered as well
+create index idx_video_user_created on tbl_video (user_id, created);
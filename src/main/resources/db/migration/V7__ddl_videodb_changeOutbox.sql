@@ -0,0 +1,10 @@
+-- transactional outbox behind GET /api/videos/changes; rows are appended in the same transaction as the
+-- video mutation and pruned by age
+create table tbl_video_change (
+    seq bigint not null auto_increment primary key,
+    video_id varbinary(16) not null,
+    type varchar(16) not null,
+    payload text,
+    created timestamp(6) not null default current_timestamp(6),
+    index idx_video_change_created (created)
+) engine=InnoDB;
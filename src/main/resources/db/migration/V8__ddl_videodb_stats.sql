@@ -0,0 +1,7 @@
+-- running totals behind GET /api/videos/stats; the all-zero user_id row holds the global totals
+create table tbl_video_stats (
+    user_id varbinary(16) not null primary key,
+    total bigint not null default 0,
+    completed bigint not null default 0,
+    updated timestamp(6) null
+) engine=InnoDB;
@@ -0,0 +1,17 @@
+-- cold tier: completed videos older than videos.archive.min-age are moved here in chunks, so an id lives in
+-- exactly one of tbl_video and tbl_video_archive; lookups by id fall through to this table
+create table tbl_video_archive (
+    id varbinary(16) not null primary key,
+    title varchar(30) character set utf8mb4 collate utf8mb4_unicode_ci,
+    description varchar(100),
+    user_id varbinary(16),
+    user_name varchar(20),
+    completed boolean default 0,
+    created timestamp(6) null,
+    updated timestamp(6) null,
+    version bigint not null default 0,
+    archived timestamp(6) not null default current_timestamp(6),
+    -- backs chunked purges by user and by archive age
+    index idx_video_archive_user_archived (user_id, archived),
+    index idx_video_archive_archived (archived)
+) engine=InnoDB;
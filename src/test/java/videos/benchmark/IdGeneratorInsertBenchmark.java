@@ -0,0 +1,121 @@
+package videos.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import videos.domain.TimeOrderedUuidGenerator;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Inserts the same synthetic catalog into two copies of tbl_video, one keyed by random v4 ids and one by
+ * time-ordered ids, and reports insert throughput per segment plus the resulting data and index size.
+ * Run with {@code ./gradlew benchmark -Pbenchmark.rows=1000000}.
+ */
+@Tag("benchmark")
+@Testcontainers
+class IdGeneratorInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int SEGMENTS = 10;
+
+    @Container
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4")
+            .withUrlParam("useBulkStmts", "true")
+            .withCommand("--innodb-buffer-pool-size=256M");
+
+    @Test
+    void compareInsertThroughputAndIndexSize() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+
+        List<String> results = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(MARIADB.getJdbcUrl(), MARIADB.getUsername(), MARIADB.getPassword())) {
+            results.add(run(connection, "random_v4", UUID::randomUUID, rows));
+            results.add(run(connection, "time_ordered_v7", TimeOrderedUuidGenerator::next, rows));
+        }
+
+        String json = "[\n" + String.join(",\n", results) + "\n]\n";
+        Path output = Path.of(System.getProperty("benchmark.output", "build/reports/benchmarks"), "id-generator-insert.json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, json);
+        System.out.println(json);
+    }
+
+    private static String run(Connection connection, String generator, Supplier<UUID> ids, int rows) throws SQLException {
+        String table = "bench_" + generator;
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table if exists " + table);
+            ddl.execute("create table " + table + " (" +
+                    "id varbinary(16) not null primary key, title varchar(30) unique, description varchar(100), " +
+                    "user_id varbinary(16), user_name varchar(20), completed boolean default 0, " +
+                    "created timestamp(6) null, updated timestamp(6) null) engine=InnoDB");
+        }
+
+        connection.setAutoCommit(false);
+        List<String> segments = new ArrayList<>();
+        int segmentRows = Math.max(rows / SEGMENTS, BATCH_SIZE);
+        long start = System.nanoTime();
+        long segmentStart = start;
+        String insert = "insert into " + table +
+                " (id, title, description, user_id, user_name, completed, created, updated) values (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            UUID userId = UUID.randomUUID();
+            for (int i = 1; i <= rows; i++) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                statement.setBytes(1, toBytes(ids.get()));
+                statement.setString(2, "title-" + i);
+                statement.setString(3, "synthetic video " + i);
+                statement.setBytes(4, toBytes(userId));
+                statement.setString(5, "benchmark");
+                statement.setBoolean(6, i % 3 == 0);
+                statement.setTimestamp(7, now);
+                statement.setTimestamp(8, now);
+                statement.addBatch();
+                if (i % BATCH_SIZE == 0 || i == rows) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+                if (i % segmentRows == 0) {
+                    long segmentEnd = System.nanoTime();
+                    segments.add(String.format("{\"rows\": %d, \"rowsPerSecond\": %.0f}",
+                            i, segmentRows / ((segmentEnd - segmentStart) / 1e9)));
+                    segmentStart = segmentEnd;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        connection.setAutoCommit(true);
+
+        long dataLength;
+        long indexLength;
+        try (Statement stats = connection.createStatement()) {
+            stats.execute("analyze table " + table);
+            try (ResultSet rs = stats.executeQuery("select data_length, index_length from information_schema.tables " +
+                    "where table_schema = database() and table_name = '" + table + "'")) {
+                rs.next();
+                dataLength = rs.getLong(1);
+                indexLength = rs.getLong(2);
+            }
+        }
+
+        return String.format("{\"generator\": \"%s\", \"rows\": %d, \"seconds\": %.2f, \"rowsPerSecond\": %.0f, " +
+                        "\"clusteredIndexBytes\": %d, \"secondaryIndexBytes\": %d, \"segments\": [%s]}",
+                generator, rows, seconds, rows / seconds, dataLength, indexLength, String.join(", ", segments));
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,150 @@
+package videos.benchmark;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the extracted application repeatedly in its default configuration and in fast-start mode
+ * (faststart profile, AOT bean definitions, CDS archive) against one MariaDB, and reports the startup time
+ * Spring logs plus the wall time until the first successful {@code GET /api/videos/ping}. Run with
+ * {@code ./gradlew cdsArchive benchmark --tests '*StartupBenchmark' -Pbenchmark.startup.runs=5}.
+ */
+@Tag("benchmark")
+@Testcontainers
+class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    @Container
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4");
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void compareStartupModes() throws Exception {
+        Path app = Path.of(System.getProperty("benchmark.app", "build/cds"));
+        String java = System.getProperty("benchmark.java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        int runs = Integer.getInteger("benchmark.startup.runs", 5);
+        Path jar;
+        try (var files = Files.list(app)) {
+            jar = files.filter(f -> f.toString().endsWith(".jar")).findFirst().orElse(null);
+        }
+        Assumptions.assumeTrue(jar != null && Files.exists(app.resolve("application.jsa")),
+                "run ./gradlew cdsArchive first");
+
+        List<String> results = new ArrayList<>();
+        results.add(run("default", app, List.of(java, "-jar", jar.getFileName().toString()), runs));
+        results.add(run("faststart", app, List.of(java, "-XX:SharedArchiveFile=application.jsa",
+                "-Dspring.aot.enabled=true", "-jar", jar.getFileName().toString(), "--spring.profiles.active=faststart"), runs));
+
+        String json = "[\n" + String.join(",\n", results) + "\n]\n";
+        Path output = Path.of(System.getProperty("benchmark.output", "build/reports/benchmarks"), "startup.json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, json);
+        System.out.println(json);
+    }
+
+    private String run(String mode, Path app, List<String> command, int runs) throws Exception {
+        List<Double> started = new ArrayList<>();
+        List<Double> firstPing = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            int port = freePort();
+            List<String> args = new ArrayList<>(command);
+            args.addAll(List.of(
+                    "--server.port=" + port,
+                    "--spring.datasource.url=" + MARIADB.getJdbcUrl(),
+                    "--spring.datasource.username=" + MARIADB.getUsername(),
+                    "--spring.datasource.password=" + MARIADB.getPassword(),
+                    "--spring.flyway.user=" + MARIADB.getUsername(),
+                    "--spring.flyway.password=" + MARIADB.getPassword(),
+                    "--eureka.client.register-with-eureka=false",
+                    "--eureka.client.fetch-registry=false"));
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(args).directory(app.toFile()).redirectErrorStream(true).start();
+            CompletableFuture<Double> log = new CompletableFuture<>();
+            Thread.ofVirtual().start(() -> readStartedSeconds(process, log));
+            try {
+                firstPing.add(awaitPing(port, process, start));
+                started.add(log.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS))
+                    process.destroyForcibly();
+            }
+        }
+        return String.format("{\"mode\": \"%s\", \"runs\": %d, \"processStartedSeconds\": %s, \"firstPingSeconds\": %s, " +
+                        "\"medianStartedSeconds\": %.3f, \"medianFirstPingSeconds\": %.3f}",
+                mode, runs, started, firstPing, median(started), median(firstPing));
+    }
+
+    private double awaitPing(int port, Process process, long start) throws InterruptedException {
+        HttpRequest ping = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/videos/ping"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        long deadline = start + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive())
+                throw new IllegalStateException("application exited with " + process.exitValue());
+            try {
+                if (http.send(ping, HttpResponse.BodyHandlers.discarding()).statusCode() == 200)
+                    return (System.nanoTime() - start) / 1e9;
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("no successful ping within " + TIMEOUT);
+    }
+
+    // "process running for" is measured by the JVM from its own start, so it includes class loading; the
+    // output is drained until the process exits so it never blocks on a full pipe
+    private static void readStartedSeconds(Process process, CompletableFuture<Double> started) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (!started.isDone() && matcher.find())
+                    started.complete(Double.parseDouble(matcher.group(2)));
+            }
+        } catch (IOException e) {
+            // process output closed
+        } finally {
+            started.complete(Double.NaN);
+        }
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package videos.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("prod")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "eureka.client.enabled=false")
+class VideoConflictTest {
+
+    @Container
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MARIADB::getJdbcUrl);
+        registry.add("spring.datasource.username", MARIADB::getUsername);
+        registry.add("spring.datasource.password", MARIADB::getPassword);
+        registry.add("spring.flyway.user", MARIADB::getUsername);
+        registry.add("spring.flyway.password", MARIADB::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void duplicateTitleIsConflict() throws Exception {
+        String video = video("conflict " + suffix());
+        mockMvc.perform(post("/api/videos").contentType(MediaType.APPLICATION_JSON).content(video))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/videos").contentType(MediaType.APPLICATION_JSON).content(video))
+                .andExpect(status().isConflict())
+                .andExpect(content().string(containsString("A video with this title already exists")));
+    }
+
+    @Test
+    void duplicateTitleInBulkIsConflictForThatItem() throws Exception {
+        String title = "bulk conflict " + suffix();
+        mockMvc.perform(post("/api/videos").contentType(MediaType.APPLICATION_JSON).content(video(title)))
+                .andExpect(status().isOk());
+
+        MvcResult started = mockMvc.perform(post("/api/videos/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(video(title) + "\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"status\":409")));
+    }
+
+    private static String video(String title) {
+        return String.format("{\"title\":\"%s\",\"description\":\"conflict test\",\"userId\":\"%s\",\"userName\":\"tester\"}",
+                title, UUID.randomUUID());
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
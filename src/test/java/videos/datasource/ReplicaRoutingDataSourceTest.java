@@ -0,0 +1,81 @@
+package videos.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Two independent MariaDB instances stand in for a primary and its replica; each is identified by its
+ * container hostname.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTest {
+
+    private static final String HOSTNAME = "select @@hostname";
+
+    @Container
+    static final MariaDBContainer<?> PRIMARY = new MariaDBContainer<>("mariadb:11.4");
+
+    @Container
+    static final MariaDBContainer<?> REPLICA = new MariaDBContainer<>("mariadb:11.4");
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaUnlessTheClientWroteRecently() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        try (HikariDataSource primary = pool("primary", PRIMARY);
+             ReplicaRoutingDataSource replicas = new ReplicaRoutingDataSource(primary,
+                     List.of(pool("replica-0", REPLICA)), tracker, new SimpleMeterRegistry())) {
+
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+            dataSource.setReadOnlyDataSource(replicas);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+
+            String primaryHost = new JdbcTemplate(primary).queryForObject(HOSTNAME, String.class);
+            String replicaHost = new JdbcTemplate(replicas.getResolvedDataSources().get("replica-0")).queryForObject(HOSTNAME, String.class);
+            Assertions.assertNotEquals(primaryHost, replicaHost);
+
+            tracker.begin("client-a");
+            try {
+                Assertions.assertEquals(primaryHost, readWrite.execute(status -> jdbc.queryForObject(HOSTNAME, String.class)));
+                Assertions.assertEquals(replicaHost, readOnly.execute(status -> jdbc.queryForObject(HOSTNAME, String.class)));
+
+                tracker.recordWrite();
+                Assertions.assertEquals(primaryHost, readOnly.execute(status -> jdbc.queryForObject(HOSTNAME, String.class)));
+            } finally {
+                tracker.end();
+            }
+
+            tracker.begin("client-b");
+            try {
+                Assertions.assertEquals(replicaHost, readOnly.execute(status -> jdbc.queryForObject(HOSTNAME, String.class)));
+            } finally {
+                tracker.end();
+            }
+        }
+    }
+
+    private static HikariDataSource pool(String name, MariaDBContainer<?> database) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(database.getJdbcUrl());
+        pool.setUsername(database.getUsername());
+        pool.setPassword(database.getPassword());
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+}
@@ -0,0 +1,21 @@
+package videos.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void idsAreVersion7AndStrictlyIncreasing() {
+        UUID previous = TimeOrderedUuidGenerator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = TimeOrderedUuidGenerator.next();
+            Assertions.assertEquals(7, next.version());
+            Assertions.assertEquals(2, next.variant());
+            Assertions.assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package videos.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void callsOverTheLimitAreRejected() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("read", 2, 1, 10, 2.0, 0.9, registry);
+
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire());
+        Assertions.assertEquals(1.0, registry.get("video.limiter.rejected").counter().count());
+    }
+
+    @Test
+    void overloadShrinksAndFastCallsGrowTheLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("write", 10, 2, 20, 2.0, 0.5, registry);
+
+        limiter.tryAcquire();
+        limiter.release(1_000_000, true);
+        Assertions.assertEquals(5, limiter.getLimit());
+
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < limiter.getLimit(); j++)
+                limiter.tryAcquire();
+            while (limiter.getInFlight() > 0)
+                limiter.release(1_000_000, false);
+        }
+        Assertions.assertTrue(limiter.getLimit() > 5);
+    }
+}
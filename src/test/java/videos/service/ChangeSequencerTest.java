@@ -0,0 +1,114 @@
+package videos.service;
+
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import videos.util.CommonUtil;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ChangeSequencerTest {
+
+    @Container
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transaction;
+    private static ChangeSequencer sequencer;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(MARIADB.getJdbcUrl(), MARIADB.getUsername(), MARIADB.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        sequencer = new ChangeSequencer(jdbcTemplate, Mockito.mock(EntityManager.class));
+    }
+
+    @Test
+    void laterCommitGetsLaterSeqEvenIfInsertedFirst() throws Exception {
+        long since = Objects.requireNonNull(jdbcTemplate.queryForObject("select last_seq from tbl_video_change_seq", Long.class));
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // the slow transaction inserts its row first and commits last
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            long id = append();
+            inserted.countDown();
+            await(release);
+            return id;
+        }));
+        Assertions.assertTrue(inserted.await(10, TimeUnit.SECONDS));
+        long fast = Objects.requireNonNull(transaction.execute(status -> append()));
+
+        List<Map<String, Object>> feed = readAfter(since);
+        Assertions.assertEquals(1, feed.size(), "the uncommitted row must not be visible yet");
+        Assertions.assertEquals(since + 1, ((Number) feed.getFirst().get("seq")).longValue());
+        Assertions.assertEquals(fast, ((Number) feed.getFirst().get("id")).longValue());
+
+        release.countDown();
+        long slowId = slow.get(10, TimeUnit.SECONDS);
+        Assertions.assertTrue(slowId < fast);
+
+        feed = readAfter(since + 1);
+        Assertions.assertEquals(1, feed.size(), "a reader already past seq " + (since + 1) + " must still get the late commit");
+        Assertions.assertEquals(since + 2, ((Number) feed.getFirst().get("seq")).longValue());
+        Assertions.assertEquals(slowId, ((Number) feed.getFirst().get("id")).longValue());
+    }
+
+    @Test
+    void rollbackLeavesNoGap() {
+        long since = Objects.requireNonNull(jdbcTemplate.queryForObject("select last_seq from tbl_video_change_seq", Long.class));
+        transaction.execute(status -> {
+            append();
+            status.setRollbackOnly();
+            return null;
+        });
+        transaction.execute(status -> append());
+
+        List<Map<String, Object>> feed = readAfter(since);
+        Assertions.assertEquals(1, feed.size());
+        Assertions.assertEquals(since + 1, ((Number) feed.getFirst().get("seq")).longValue());
+    }
+
+    private static long append() {
+        long id = Objects.requireNonNull(jdbcTemplate.queryForObject("select nextval(seq_video_change_id)", Long.class));
+        jdbcTemplate.update("insert into tbl_video_change (id, video_id, type, created) values (?, ?, 'CREATED', ?)",
+                id, CommonUtil.toBytes(UUID.randomUUID()), Timestamp.from(Instant.now()));
+        sequencer.register(id);
+        return id;
+    }
+
+    private static List<Map<String, Object>> readAfter(long since) {
+        return jdbcTemplate.queryForList("select id, seq from tbl_video_change where seq > ? order by seq", since);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS))
+                throw new IllegalStateException("timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package videos.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import videos.domain.Video;
+import videos.dto.VideoDTO;
+import videos.mapper.VideoMapperImpl;
+import videos.repository.VideosRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class VideoBatchLoaderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentLookupsShareOneQuery() throws Exception {
+        UUID existing = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        Video video = Video.builder().title("title").build();
+        video.setId(existing);
+
+        VideosRepository repository = Mockito.mock(VideosRepository.class);
+        Mockito.when(repository.findAllById(Mockito.any())).thenAnswer(invocation ->
+                ((Collection<UUID>) invocation.getArgument(0)).contains(existing) ? List.of(video) : List.of());
+        VideoBatchLoader loader = new VideoBatchLoader(repository, new VideoMapperImpl(),
+                Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), Duration.ofMillis(200), 100);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<VideoDTO>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                UUID id = i % 5 == 0 ? unknown : existing;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(id);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < results.size(); i++)
+                Assertions.assertEquals(i % 5 != 0, results.get(i).get().isPresent());
+        }
+
+        Mockito.verify(repository, Mockito.times(1)).findAllById(Mockito.argThat(ids -> ids.size() <= 2));
+    }
+
+    @Test
+    void lookupArrivingDuringTheQueryIsNotJoinedToIt() throws Exception {
+        UUID id = UUID.randomUUID();
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+
+        VideosRepository repository = Mockito.mock(VideosRepository.class);
+        Mockito.when(repository.findAllById(Mockito.any())).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                querying.countDown();
+                release.await();
+            }
+            return List.of();
+        });
+        VideoBatchLoader loader = new VideoBatchLoader(repository, new VideoMapperImpl(),
+                Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), Duration.ZERO, 100);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<VideoDTO>> first = executor.submit(() -> loader.load(id));
+            Assertions.assertTrue(querying.await(5, TimeUnit.SECONDS));
+
+            // the first query may have read the row before a write whose eviction this caller already saw
+            Future<Optional<VideoDTO>> second = executor.submit(() -> loader.load(id));
+            Assertions.assertTrue(second.get(5, TimeUnit.SECONDS).isEmpty());
+            Assertions.assertEquals(2, queries.get());
+
+            release.countDown();
+            Assertions.assertTrue(first.get(5, TimeUnit.SECONDS).isEmpty());
+        }
+    }
+
+    @Test
+    void errorsFailEveryWaiterOfTheBatch() throws Exception {
+        VideosRepository repository = Mockito.mock(VideosRepository.class);
+        Mockito.when(repository.findAllById(Mockito.any())).thenThrow(new StackOverflowError());
+        VideoBatchLoader loader = new VideoBatchLoader(repository, new VideoMapperImpl(),
+                Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), Duration.ofMillis(200), 100);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<VideoDTO>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(UUID.randomUUID());
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<VideoDTO>> result : results) {
+                ExecutionException failure = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                Assertions.assertInstanceOf(StackOverflowError.class, failure.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package videos.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class BloomFilterTest {
+
+    @Test
+    void insertedKeysAreAlwaysReported() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            filter.put(BloomFilter.hash(id));
+        }
+
+        ids.forEach(id -> Assertions.assertTrue(filter.mightContain(BloomFilter.hash(id))));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++)
+            filter.put(BloomFilter.hash(UUID.randomUUID()));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(BloomFilter.hash(UUID.randomUUID())))
+                falsePositives++;
+        }
+        Assertions.assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        Assertions.assertEquals(0.01, filter.expectedFpp(), 0.005);
+    }
+}
@@ -0,0 +1,30 @@
+package videos.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import videos.exception.VideoServiceException;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+class VideoCursorTest {
+
+    @Test
+    void encodedCursorDecodesToSamePosition() {
+        VideoCursor cursor = new VideoCursor(Timestamp.from(Instant.parse("2025-03-01T10:15:30.123456Z")), UUID.randomUUID());
+
+        Assertions.assertEquals(cursor, VideoCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void positionWithoutCreatedIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new VideoCursor(null, UUID.randomUUID()));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        Assertions.assertThrows(VideoServiceException.class, () -> VideoCursor.decode("not-a-cursor"));
+        Assertions.assertThrows(VideoServiceException.class, () -> VideoCursor.decode("%%%"));
+    }
+}
@@ -0,0 +1,55 @@
+package videos.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import videos.dto.VideoDTO;
+import videos.exception.VideoServiceException;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+class VideoFieldTest {
+
+    @Test
+    void blankSelectsTheFullVideo() {
+        Assertions.assertNull(VideoField.parse(null));
+        Assertions.assertNull(VideoField.parse(" "));
+    }
+
+    @Test
+    void idAndUpdatedAreAlwaysSelected() {
+        Assertions.assertEquals(EnumSet.of(VideoField.ID, VideoField.TITLE, VideoField.COMPLETED, VideoField.UPDATED),
+                VideoField.parse("title, completed"));
+    }
+
+    @Test
+    void unknownFieldsAreRejected() {
+        VideoServiceException e = Assertions.assertThrows(VideoServiceException.class,
+                () -> VideoField.parse("title,duration"));
+        Assertions.assertTrue(e.getMessage().contains("duration"));
+    }
+
+    @Test
+    void projectionKeepsOnlySelectedFields() {
+        VideoDTO video = VideoDTO.builder()
+                .id(UUID.randomUUID())
+                .title("title")
+                .description("description")
+                .completed(true)
+                .updated(LocalDateTime.now())
+                .version(3L)
+                .build();
+        Set<VideoField> fields = VideoField.parse("title,completed");
+
+        VideoDTO projected = VideoField.project(video, fields);
+
+        Assertions.assertEquals(video.getId(), projected.getId());
+        Assertions.assertEquals("title", projected.getTitle());
+        Assertions.assertEquals(true, projected.getCompleted());
+        Assertions.assertEquals(video.getUpdated(), projected.getUpdated());
+        Assertions.assertNull(projected.getDescription());
+        Assertions.assertNull(projected.getVersion());
+    }
+}